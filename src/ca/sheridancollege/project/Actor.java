@@ -0,0 +1,118 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * A unit of state that only ever runs on one thread at a time and is reached by messages.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class for actors: objects whose state is touched only by receive(),
+ * which handles one message at a time from the actor's Mailbox. Any thread may
+ * tell() an actor something; the actor is then scheduled on its executor and
+ * drains its mailbox. A work-in-progress counter makes sure at most one pool
+ * thread runs a given actor at once (the same scheme GameEventPublisher uses to
+ * deliver to a subscriber), so the state inside needs no locks and can be a
+ * plain TableSimulator, Deck or Dealer.
+ * 
+ * Many actors can share one executor; an actor gives its thread back after
+ * BATCH messages so that a busy actor cannot starve the others.
+ * 
+ * @param <T> the message type
+ */
+public abstract class Actor<T> implements Runnable {
+    
+    // Messages handled before the actor yields its pool thread
+    private static final int BATCH = 64;
+    
+    private final Mailbox<T> mailbox;
+    private final Executor executor;
+    private final AtomicInteger workInProgress;
+    
+    /**
+     * Constructor to create an actor.
+     * 
+     * @param executor runs the actor whenever it has messages
+     * @param mailboxCapacity the most messages waiting before senders are held back
+     */
+    protected Actor(Executor executor, int mailboxCapacity) {
+        this.mailbox = new Mailbox<>(mailboxCapacity);
+        this.executor = executor;
+        this.workInProgress = new AtomicInteger();
+    }
+    
+    /**
+     * Sends a message, waiting (without locking) while the mailbox is full.
+     * Senders must not be able to wait on each other in a cycle; the protocols
+     * built on this keep at most a known number of messages in flight.
+     * 
+     * @param message the message
+     */
+    public final void tell(T message) {
+        while (!mailbox.offer(message)) {
+            Thread.yield();
+        }
+        signal();
+    }
+    
+    /**
+     * Sends a message if the mailbox has room.
+     * 
+     * @param message the message
+     * @return false if the mailbox was full and the message was not sent
+     */
+    public final boolean tryTell(T message) {
+        if (!mailbox.offer(message)) {
+            return false;
+        }
+        signal();
+        return true;
+    }
+    
+    /**
+     * Handles one message. Always called on one thread at a time, in the order
+     * each sender sent its messages.
+     * 
+     * @param message the message
+     */
+    protected abstract void receive(T message);
+    
+    private void signal() {
+        if (workInProgress.getAndIncrement() == 0) {
+            executor.execute(this);
+        }
+    }
+    
+    /**
+     * Drains the mailbox. Called by the executor, never directly.
+     */
+    @Override
+    public final void run() {
+        int missed = 1;
+        int handled = 0;
+        while (true) {
+            T message;
+            while ((message = mailbox.poll()) != null) {
+                try {
+                    receive(message);
+                } catch (RuntimeException e) {
+                    // A failed message must not leave the actor scheduled forever
+                    System.err.println("Error: " + getClass().getSimpleName() + " could not handle "
+                            + message + ": " + e);
+                }
+                if (++handled == BATCH) {
+                    executor.execute(this);     // Still scheduled, so no other thread can start it
+                    return;
+                }
+            }
+            missed = workInProgress.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Checks that the simulated round pipeline allocates nothing once warmed up.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Plays TableSimulator rounds (betting, the deal, the players' and dealer's
+ * turns and settlement) and reads the thread's allocated bytes from the JVM's
+ * ThreadMXBean around a steady-state run. The run is long enough to go
+ * through many reshuffles, so rebuilding the shoe is measured as well.
+ * 
+ * The run is measured in several passes. A switch between compilation tiers can
+ * allocate a few hundred bytes once, but code that allocates every round does
+ * so in every pass, so the check fails only if no pass is clean.
+ */
+public class AllocationCheck {
+    
+    private static final int SEATS = 3;
+    private static final int DECKS = 6;
+    private static final long SEED = 17796L;
+    private static final int BANKROLL = 1_000_000_000;
+    private static final int PASSES = 3;
+    
+    /**
+     * Plays rounds, counting how many of them started with a reshuffled shoe.
+     * Only a shoe is reshuffled; the other modes never run low.
+     * 
+     * @param table the table
+     * @param rounds the rounds to play
+     * @return the number of reshuffles
+     */
+    private static int play(TableSimulator table, long rounds) {
+        int reshuffles = 0;
+        int cardsLeft = table.getDeck().getSize();
+        for (long r = 0; r < rounds; r++) {
+            if (!table.playRound()) {
+                throw new IllegalStateException("Every seat stopped betting after " + r + " rounds");
+            }
+            if (table.getDeck().getMode() == Deck.Mode.SHOE && table.getDeck().getSize() > cardsLeft) {
+                reshuffles++;
+            }
+            cardsLeft = table.getDeck().getSize();
+        }
+        return reshuffles;
+    }
+    
+    /**
+     * Runs the check.
+     * 
+     * @param args optional: the rounds in each measured pass [1000000], and the warm-up rounds [200000]
+     */
+    public static void main(String[] args) {
+        long rounds = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        long warmUp = args.length > 1 ? Long.parseLong(args[1]) : 200_000L;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            System.out.println("Error: This JVM does not count allocated bytes per thread");
+            return;
+        }
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        long thread = Thread.currentThread().getId();
+        
+        Deck.Mode[] modes = Deck.Mode.values();
+        for (int m = 0; m < modes.length; m++) {
+            TableSimulator table = new TableSimulator(DECKS, SEED, modes[m]);
+            for (int seat = 0; seat < SEATS; seat++) {
+                table.addPlayer(new BlackjackPlayer("Seat " + (seat + 1), BANKROLL),
+                                PolicyStrategy.basic(10).withBetRamp(new int[] {10, 10, 20, 40, 80}));
+            }
+            play(table, warmUp);       // Compiles the pipeline and sizes every list
+            
+            long allocated = Long.MAX_VALUE;
+            int reshuffles = 0;
+            StringBuilder passes = new StringBuilder();
+            for (int pass = 0; pass < PASSES; pass++) {
+                long before = counter.getThreadAllocatedBytes(thread);
+                reshuffles += play(table, rounds);
+                long passBytes = counter.getThreadAllocatedBytes(thread) - before;
+                allocated = Math.min(allocated, passBytes);
+                passes.append(pass == 0 ? "" : ", ").append(String.format("%,d", passBytes));
+            }
+            
+            System.out.printf("%-10s %d x %,d rounds, %d seats, %,d reshuffles: %s bytes allocated%n",
+                              modes[m], PASSES, rounds, SEATS, reshuffles, passes);
+            if (allocated > 0) {
+                System.out.println("Error: The " + modes[m] + " round pipeline allocated memory");
+            }
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * A lock-free ledger for player bankrolls.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Holds player bankroll accounts that can be used safely from many tables at once.
+ * 
+ * Every operation is a compare-and-set loop on the account's own state, so a
+ * busy player never blocks a table and can never be overdrawn. An account
+ * opened in a ledger keeps its own journal: its latest Entry is its state, and
+ * an operation installs the next entry (with the next sequence number) in the
+ * same compare-and-set that changes the balance, so an account's sequence
+ * numbers always follow the order of its balances. Nothing is shared between
+ * accounts. The journal is append-only and keeps every entry: entries are
+ * stored by sequence number in fixed-size segments chained as they fill, so it
+ * grows without copying and no entry is ever overwritten.
+ * 
+ * Standalone accounts keep no journal and pack the balance and the amount
+ * reserved for open bets into a single AtomicLong, so they allocate nothing.
+ */
+public class BankrollLedger {
+    
+    /**
+     * The kinds of journal entries.
+     */
+    public enum EntryType {
+        OPEN, CREDIT, DEBIT, RESERVE, RELEASE, SETTLE
+    }
+    
+    // Journal entries per segment
+    private static final int SEGMENT_SIZE = 256;
+    
+    // Returned by a transition that is not allowed; no real state packs to this
+    private static final long REFUSED = Long.MIN_VALUE;
+    
+    private final AtomicLong nextAccountId = new AtomicLong();
+    
+    /**
+     * Opens a new account in this ledger.
+     * 
+     * @param initialBalance the starting balance
+     * @return the account
+     */
+    public Account open(int initialBalance) {
+        return new Account((int) nextAccountId.getAndIncrement(), initialBalance);
+    }
+    
+    private static long pack(int balance, int reserved) {
+        return ((long) balance << 32) | (reserved & 0xFFFFFFFFL);
+    }
+    
+    private static int balanceOf(long state) {
+        return (int) (state >> 32);
+    }
+    
+    private static int reservedOf(long state) {
+        return (int) state;
+    }
+    
+    /**
+     * Works out the state after an operation.
+     * 
+     * @param current the balance and reserved amount before
+     * @param type the operation
+     * @param amount its amount (the signed points change for SETTLE)
+     * @param reservedAmount the reservation a SETTLE releases
+     * @return the state after, or REFUSED if not enough is available or reserved
+     */
+    private static long transition(long current, EntryType type, int amount, int reservedAmount) {
+        int balance = balanceOf(current);
+        int reserved = reservedOf(current);
+        switch (type) {
+            case CREDIT:
+                return pack(Math.addExact(balance, amount), reserved);
+            case DEBIT:
+                return balance - reserved < amount ? REFUSED : pack(balance - amount, reserved);
+            case RESERVE:
+                return balance - reserved < amount ? REFUSED : pack(balance, reserved + amount);
+            case RELEASE:
+                return reserved < amount ? REFUSED : pack(balance, reserved - amount);
+            case SETTLE:
+                return reserved < reservedAmount ? REFUSED
+                        : pack(Math.addExact(balance, amount), reserved - reservedAmount);
+            default:
+                throw new IllegalArgumentException("Cannot apply " + type);
+        }
+    }
+    
+    /**
+     * A bankroll account. Accounts created without a ledger work the same way
+     * but keep no journal.
+     */
+    public static class Account {
+        private final int id;
+        private final AtomicLong state;             // Standalone: balance high, reserved low 32 bits
+        private final AtomicReference<Entry> latest;    // In a ledger: the entry holding the state
+        private final Segment firstSegment;             // In a ledger: the journal from entry 0
+        private final AtomicReference<Segment> lastSegment;     // Where appends start looking
+        
+        /**
+         * Constructor to create a standalone account with no journal.
+         * 
+         * @param initialBalance the starting balance
+         */
+        public Account(int initialBalance) {
+            checkInitialBalance(initialBalance);
+            this.id = -1;
+            this.state = new AtomicLong(pack(initialBalance, 0));
+            this.latest = null;
+            this.firstSegment = null;
+            this.lastSegment = null;
+        }
+        
+        private Account(int id, int initialBalance) {
+            checkInitialBalance(initialBalance);
+            this.id = id;
+            this.state = null;
+            Entry opened = new Entry(0, id, EntryType.OPEN, initialBalance, initialBalance, 0);
+            this.latest = new AtomicReference<>(opened);
+            this.firstSegment = new Segment(0);
+            this.lastSegment = new AtomicReference<>(firstSegment);
+            firstSegment.entries.set(0, opened);
+        }
+        
+        private static void checkInitialBalance(int initialBalance) {
+            if (initialBalance < 0) {
+                throw new IllegalArgumentException("Initial balance cannot be negative: " + initialBalance);
+            }
+        }
+        
+        public int getId() {
+            return id;
+        }
+        
+        private long load() {
+            if (state != null) {
+                return state.get();
+            }
+            Entry entry = latest.get();
+            return pack(entry.balanceAfter, entry.reservedAfter);
+        }
+        
+        /**
+         * Gets the balance, including any amount reserved for open bets.
+         * 
+         * @return the balance
+         */
+        public int getBalance() {
+            return balanceOf(load());
+        }
+        
+        /**
+         * Gets the amount reserved for open bets.
+         * 
+         * @return the reserved amount
+         */
+        public int getReserved() {
+            return reservedOf(load());
+        }
+        
+        /**
+         * Gets the balance that is not reserved for open bets.
+         * 
+         * @return the available balance
+         */
+        public int getAvailable() {
+            long current = load();
+            return balanceOf(current) - reservedOf(current);
+        }
+        
+        /**
+         * Adds to the balance.
+         * 
+         * @param amount the amount to add, greater than 0
+         * @return the balance before the credit
+         */
+        public int credit(int amount) {
+            return balanceOf(apply(EntryType.CREDIT, amount, 0));
+        }
+        
+        /**
+         * Removes from the balance if enough is available outside open bets.
+         * 
+         * @param amount the amount to remove, greater than 0
+         * @return the balance before the debit, or -1 if not enough was available
+         */
+        public int debit(int amount) {
+            long before = apply(EntryType.DEBIT, amount, 0);
+            return before == REFUSED ? -1 : balanceOf(before);
+        }
+        
+        /**
+         * Reserves part of the available balance for a bet.
+         * 
+         * @param amount the amount to reserve, greater than 0
+         * @return true if enough was available
+         */
+        public boolean reserve(int amount) {
+            return apply(EntryType.RESERVE, amount, 0) != REFUSED;
+        }
+        
+        /**
+         * Releases a reservation without changing the balance.
+         * 
+         * @param amount the amount that was reserved
+         * @return true if at least that much was reserved
+         */
+        public boolean release(int amount) {
+            return apply(EntryType.RELEASE, amount, 0) != REFUSED;
+        }
+        
+        /**
+         * Settles a bet: releases its reservation and applies the win or loss
+         * in one atomic step. A loss can never exceed the reserved amount, so
+         * the balance cannot go negative.
+         * 
+         * @param reservedAmount the amount reserved for the bet
+         * @param pointsChange the points won (positive) or lost (negative)
+         * @return the balance before the settlement
+         * @throws IllegalArgumentException if the loss exceeds the bet, or the bet is not reserved
+         */
+        public int settle(int reservedAmount, int pointsChange) {
+            if (pointsChange < -reservedAmount) {
+                throw new IllegalArgumentException("Loss of " + -pointsChange + " exceeds the bet of " + reservedAmount);
+            }
+            long before = apply(EntryType.SETTLE, pointsChange, reservedAmount);
+            if (before == REFUSED) {
+                throw new IllegalArgumentException("Bet of " + reservedAmount + " is more than the "
+                        + getReserved() + " reserved");
+            }
+            return balanceOf(before);
+        }
+        
+        /**
+         * Applies an operation with a compare-and-set loop. In a ledger the new
+         * journal entry is the new state, so its sequence number is claimed by
+         * the same compare-and-set.
+         * 
+         * @return the state before, or REFUSED
+         */
+        private long apply(EntryType type, int amount, int reservedAmount) {
+            if (state != null) {
+                while (true) {
+                    long current = state.get();
+                    long next = transition(current, type, amount, reservedAmount);
+                    if (next == REFUSED || state.compareAndSet(current, next)) {
+                        return next == REFUSED ? REFUSED : current;
+                    }
+                }
+            }
+            while (true) {
+                Entry last = latest.get();
+                long current = pack(last.balanceAfter, last.reservedAfter);
+                long next = transition(current, type, amount, reservedAmount);
+                if (next == REFUSED) {
+                    return REFUSED;
+                }
+                Entry entry = new Entry(last.sequence + 1, id, type, amount, balanceOf(next), reservedOf(next));
+                if (latest.compareAndSet(last, entry)) {
+                    store(entry);
+                    return current;
+                }
+            }
+        }
+        
+        /**
+         * Appends an entry to the journal. Its sequence number was claimed by the
+         * compare-and-set, so no other thread writes its slot.
+         */
+        private void store(Entry entry) {
+            Segment segment = lastSegment.get();
+            if (segment.base > entry.sequence) {
+                segment = firstSegment;     // A later entry has already moved on to a new segment
+            }
+            while (entry.sequence >= segment.base + SEGMENT_SIZE) {
+                Segment next = segment.next.get();
+                if (next == null) {
+                    segment.next.compareAndSet(null, new Segment(segment.base + SEGMENT_SIZE));
+                    next = segment.next.get();
+                }
+                segment = next;
+            }
+            segment.entries.set((int) (entry.sequence - segment.base), entry);
+            Segment last = lastSegment.get();
+            while (last.base < segment.base && !lastSegment.compareAndSet(last, segment)) {
+                last = lastSegment.get();
+            }
+        }
+        
+        /**
+         * Gets the journal in sequence order, from the OPEN entry. If another
+         * thread is still storing an entry, the list stops just before it.
+         * 
+         * @return the entries, or an empty list for a standalone account
+         */
+        public List<Entry> getJournal() {
+            List<Entry> entries = new ArrayList<>();
+            if (firstSegment == null) {
+                return entries;
+            }
+            long end = latest.get().sequence;
+            Segment segment = firstSegment;
+            for (long sequence = 0; sequence <= end; sequence++) {
+                if (sequence == segment.base + SEGMENT_SIZE) {
+                    segment = segment.next.get();
+                }
+                Entry entry = segment == null ? null : segment.entries.get((int) (sequence - segment.base));
+                if (entry == null) {
+                    break;
+                }
+                entries.add(entry);
+            }
+            return entries;
+        }
+        
+        /**
+         * Rebuilds the balance from the whole journal, to check it against the
+         * live balance: starts from the opening balance, applies every entry in
+         * order and checks each against the balance it recorded. Call it when
+         * no operation is in progress on the account.
+         * 
+         * @return the balance according to the journal
+         * @throws IllegalStateException if the journal is incomplete or disagrees with itself
+         */
+        public int replayBalance() {
+            List<Entry> entries = getJournal();
+            if (entries.isEmpty()) {
+                return getBalance();
+            }
+            if (entries.get(entries.size() - 1).sequence != latest.get().sequence) {
+                throw new IllegalStateException("Journal of account " + id + " is missing entry #"
+                        + (entries.get(entries.size() - 1).sequence + 1));
+            }
+            int balance = entries.get(0).amount;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                switch (entry.type) {
+                    case CREDIT:
+                    case SETTLE:
+                        balance += entry.amount;
+                        break;
+                    case DEBIT:
+                        balance -= entry.amount;
+                        break;
+                    default:
+                        break;
+                }
+                if (entry.balanceAfter != balance) {
+                    throw new IllegalStateException("Journal of account " + id + " entry #" + entry.sequence
+                            + " records balance " + entry.balanceAfter + " but its history gives " + balance);
+                }
+            }
+            return balance;
+        }
+    }
+    
+    /**
+     * A fixed-size block of one account's journal, linked to the next block
+     * once it fills.
+     */
+    private static final class Segment {
+        private final long base;        // Sequence number of the first slot
+        private final AtomicReferenceArray<Entry> entries;
+        private final AtomicReference<Segment> next;
+        
+        Segment(long base) {
+            this.base = base;
+            this.entries = new AtomicReferenceArray<>(SEGMENT_SIZE);
+            this.next = new AtomicReference<>();
+        }
+    }
+    
+    /**
+     * One journal entry. For SETTLE the amount is the signed points change.
+     * Sequence numbers count the operations of one account, from 0 for OPEN.
+     */
+    public static class Entry {
+        private final long sequence;
+        private final int accountId;
+        private final EntryType type;
+        private final int amount;
+        private final int balanceAfter;
+        private final int reservedAfter;
+        
+        Entry(long sequence, int accountId, EntryType type, int amount, int balanceAfter, int reservedAfter) {
+            this.sequence = sequence;
+            this.accountId = accountId;
+            this.type = type;
+            this.amount = amount;
+            this.balanceAfter = balanceAfter;
+            this.reservedAfter = reservedAfter;
+        }
+        
+        public long getSequence() {
+            return sequence;
+        }
+        
+        public int getAccountId() {
+            return accountId;
+        }
+        
+        public EntryType getType() {
+            return type;
+        }
+        
+        public int getAmount() {
+            return amount;
+        }
+        
+        public int getBalanceAfter() {
+            return balanceAfter;
+        }
+        
+        public int getReservedAfter() {
+            return reservedAfter;
+        }
+        
+        @Override
+        public String toString() {
+            return "#" + sequence + " account " + accountId + " " + type + " " + amount
+                    + " -> balance " + balanceAfter + " (reserved " + reservedAfter + ")";
+        }
+    }
+}
@@ -0,0 +1,382 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Runs headless simulations described by a configuration file.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a batch of simulated rounds on TableSimulator from a properties file and
+ * streams one record per seat per round to a CSV or binary file.
+ * 
+ * Each thread plays its own table (seeded seed + table number) and writes
+ * records into fixed-size buffers taken from a bounded pool. A single writer
+ * thread drains full buffers to a FileChannel and hands them back, so memory
+ * stays bounded however large the output grows, and tables wait for the disk
+ * instead of queueing unbounded data. Progress is reported on stderr.
+ * 
+ * Configuration keys, besides the table and seat keys of SimulationJob
+ * (defaults in brackets):
+ * <pre>
+ * rounds=1000000                (total over all tables)
+ * threads=[processors]
+ * output=results.csv            format=[csv, or binary for a .bin output]
+ * </pre>
+ */
+public class BatchSimulation {
+    
+    public enum Format { CSV, BINARY }
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int BUFFER_COUNT = 64;           // 4 MB of output in flight at most
+    private static final int MAX_CSV_LINE = 96;
+    private static final int BINARY_MAGIC = 0x424A4253;    // "BJBS"
+    public static final int BINARY_RECORD_SIZE = 27;
+    private static final String CSV_HEADER =
+            "table,round,seat,bet,result,points_change,side_bet_change,dealer_total,points\n";
+    
+    // Placed on the queue after the last buffer to stop the writer
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+    
+    private static final List<String> BATCH_KEYS = Arrays.asList("rounds", "threads", "output", "format");
+    
+    private final SimulationJob job;
+    private final long rounds;
+    private final int threads;
+    private final Path output;
+    private final Format format;
+    
+    private final BlockingQueue<ByteBuffer> freeBuffers;
+    private final BlockingQueue<ByteBuffer> fullBuffers;
+    private final AtomicLong roundsDone;
+    private volatile IOException writeError;
+    
+    /**
+     * Constructor to create a batch from a configuration.
+     * 
+     * @param config the configuration (see the class comment for the keys)
+     * @throws IllegalArgumentException if a setting is missing, invalid or not recognised
+     */
+    public BatchSimulation(Properties config) {
+        this.job = new SimulationJob(config, BATCH_KEYS);
+        this.rounds = Long.parseLong(config.getProperty("rounds", "1000000").trim());
+        this.threads = SimulationJob.intSetting(config, "threads", Runtime.getRuntime().availableProcessors());
+        this.output = Paths.get(config.getProperty("output", "results.csv").trim());
+        String defaultFormat = output.toString().endsWith(".bin") ? "binary" : "csv";
+        this.format = Format.valueOf(SimulationJob.upperCase(config.getProperty("format", defaultFormat)));
+        if (rounds < 1 || threads < 1) {
+            throw new IllegalArgumentException("rounds and threads must be at least 1");
+        }
+        
+        this.freeBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT);
+        this.fullBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT + 1);
+        this.roundsDone = new AtomicLong();
+    }
+    
+    /**
+     * Plays every table and writes the output file.
+     * 
+     * @return a summary of each seat's results over all tables
+     * @throws IOException if the output cannot be written
+     * @throws InterruptedException if interrupted while waiting for the tables
+     */
+    public String run() throws IOException, InterruptedException {
+        freeBuffers.clear();
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            freeBuffers.add(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+        long start = System.nanoTime();
+        long[] totals = new long[job.getSeats() * 3];     // Rounds bet, points change, side bet change
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(header());
+            Thread writer = new Thread(() -> drain(channel), "batch-writer");
+            writer.start();
+            progress.scheduleAtFixedRate(() -> printProgress(start), 1, 1, TimeUnit.SECONDS);
+            
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int table = 0; table < threads; table++) {
+                long tableRounds = rounds / threads + (table < rounds % threads ? 1 : 0);
+                final int tableId = table;
+                futures.add(executor.submit(() -> playTable(tableId, tableRounds)));
+            }
+            try {
+                for (int i = 0; i < futures.size(); i++) {
+                    long[] tableTotals = futures.get(i).get();
+                    for (int j = 0; j < totals.length; j++) {
+                        totals[j] += tableTotals[j];
+                    }
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Simulation table failed", e.getCause());
+            } finally {
+                fullBuffers.put(END);
+                writer.join();
+            }
+        } finally {
+            progress.shutdownNow();
+            executor.shutdownNow();
+        }
+        if (writeError != null) {
+            throw writeError;
+        }
+        printProgress(start);
+        System.err.println();
+        return summary(totals, (System.nanoTime() - start) / 1e9);
+    }
+    
+    /**
+     * Plays the rounds of one table, writing a record for every seat that bet.
+     * 
+     * @param tableId the table number, added to the seed
+     * @param tableRounds the rounds to play
+     * @return per-seat rounds bet, points change and side bet change
+     * @throws InterruptedException if interrupted while waiting for a free buffer
+     */
+    private long[] playTable(int tableId, long tableRounds) throws InterruptedException {
+        TableSimulator table = job.newTable(tableId);
+        int seats = job.getSeats();
+        int recordSpace = seats * (format == Format.CSV ? MAX_CSV_LINE : BINARY_RECORD_SIZE);
+        long[] totals = new long[seats * 3];
+        ByteBuffer buffer = freeBuffers.take();
+        long played = 0;
+        for (; played < tableRounds; played++) {
+            if (!table.playRound()) {
+                break;      // Every seat is out of points
+            }
+            for (int seat = 0; seat < seats; seat++) {
+                RoundResult result = table.getLastResult(seat);
+                if (result == null) {
+                    continue;
+                }
+                int bet = table.getPlayers().get(seat).getCurrentBet();
+                int pointsChange = table.getLastPointsChange(seat);
+                int sideBetChange = table.getLastSideBetChange(seat);
+                int points = table.getPlayers().get(seat).getPoints();
+                if (format == Format.CSV) {
+                    putCsv(buffer, tableId, table.getRoundNumber(), seat, bet, result, pointsChange,
+                           sideBetChange, table.getDealerFinalValue(), points);
+                } else {
+                    buffer.putShort((short) tableId);
+                    buffer.putInt(table.getRoundNumber());
+                    buffer.put((byte) seat);
+                    buffer.putInt(bet);
+                    buffer.put((byte) result.ordinal());
+                    buffer.putInt(pointsChange);
+                    buffer.putInt(sideBetChange);
+                    buffer.put((byte) table.getDealerFinalValue());
+                    buffer.putInt(points);
+                    buffer.putShort((short) 0);     // Reserved
+                }
+                totals[seat * 3]++;
+                totals[seat * 3 + 1] += pointsChange;
+                totals[seat * 3 + 2] += sideBetChange;
+            }
+            if (buffer.remaining() < recordSpace) {
+                fullBuffers.put(buffer);
+                buffer = freeBuffers.take();
+            }
+            if ((played & 1023) == 1023) {
+                roundsDone.addAndGet(1024);
+            }
+        }
+        fullBuffers.put(buffer);
+        roundsDone.addAndGet(played & 1023);
+        return totals;
+    }
+    
+    /**
+     * Writes full buffers to the file until the end marker arrives. After a write
+     * error the remaining buffers are recycled unwritten so the tables can finish.
+     * 
+     * @param channel the output file
+     */
+    private void drain(FileChannel channel) {
+        try {
+            while (true) {
+                ByteBuffer buffer = fullBuffers.take();
+                if (buffer == END) {
+                    return;
+                }
+                buffer.flip();
+                try {
+                    while (writeError == null && buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                } catch (IOException e) {
+                    writeError = e;
+                }
+                buffer.clear();
+                freeBuffers.put(buffer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Builds the file header: the CSV column names, or a magic number, version
+     * and record size for binary output.
+     * 
+     * @return the header bytes
+     */
+    private ByteBuffer header() {
+        if (format == Format.CSV) {
+            ByteBuffer header = ByteBuffer.allocate(CSV_HEADER.length());
+            putAscii(header, CSV_HEADER);
+            header.flip();
+            return header;
+        }
+        ByteBuffer header = ByteBuffer.allocate(10);
+        header.putInt(BINARY_MAGIC);
+        header.putShort((short) 1);
+        header.putInt(BINARY_RECORD_SIZE);
+        header.flip();
+        return header;
+    }
+    
+    /**
+     * Writes one CSV line without creating any strings.
+     */
+    private static void putCsv(ByteBuffer buffer, int tableId, int round, int seat, int bet, RoundResult result,
+                               int pointsChange, int sideBetChange, int dealerTotal, int points) {
+        putInt(buffer, tableId);
+        buffer.put((byte) ',');
+        putInt(buffer, round);
+        buffer.put((byte) ',');
+        putInt(buffer, seat);
+        buffer.put((byte) ',');
+        putInt(buffer, bet);
+        buffer.put((byte) ',');
+        putAscii(buffer, result.name());
+        buffer.put((byte) ',');
+        putInt(buffer, pointsChange);
+        buffer.put((byte) ',');
+        putInt(buffer, sideBetChange);
+        buffer.put((byte) ',');
+        putInt(buffer, dealerTotal);
+        buffer.put((byte) ',');
+        putInt(buffer, points);
+        buffer.put((byte) '\n');
+    }
+    
+    /**
+     * Writes an int in decimal ASCII.
+     * 
+     * @param buffer the buffer
+     * @param value the value
+     */
+    private static void putInt(ByteBuffer buffer, int value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Integer.MIN_VALUE) {
+                putAscii(buffer, "2147483648");
+                return;
+            }
+            value = -value;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+    
+    /**
+     * Writes an ASCII string.
+     * 
+     * @param buffer the buffer
+     * @param text the text
+     */
+    private static void putAscii(ByteBuffer buffer, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+    
+    /**
+     * Prints the rounds played so far and the rate on stderr.
+     * 
+     * @param start when the run started, from System.nanoTime()
+     */
+    private void printProgress(long start) {
+        long done = roundsDone.get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("\rRounds %,d / %,d (%.1f%%), %,.0f rounds/s", done, rounds,
+                          100.0 * done / rounds, done / Math.max(seconds, 1e-9));
+    }
+    
+    /**
+     * Formats each seat's results over all tables.
+     * 
+     * @param totals per-seat rounds bet, points change and side bet change
+     * @param seconds the time taken
+     * @return the summary
+     */
+    private String summary(long[] totals, double seconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d rounds on %d tables in %.1f s, written to %s (%s)%n",
+                rounds, threads, seconds, output, format));
+        for (int seat = 0; seat < job.getSeats(); seat++) {
+            long bets = totals[seat * 3];
+            sb.append(String.format("  %-12s rounds %,d  net %+,d  per round %+.4f  side bets %+,d%n",
+                    job.getName(seat), bets, totals[seat * 3 + 1],
+                    bets == 0 ? 0.0 : totals[seat * 3 + 1] / (double) bets, totals[seat * 3 + 2]));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Runs the batch described by a configuration file.
+     * 
+     * @param args the configuration file
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: BatchSimulation CONFIG.properties");
+            return;
+        }
+        Properties config = new Properties();
+        try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+            config.load(in);
+            System.out.print(new BatchSimulation(config).run());
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: Invalid configuration: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -74,6 +74,25 @@ public class BlackjackCard extends Card {
         }
     }
     
+    // Number of distinct cards in a standard deck (4 suits x 13 ranks)
+    public static final int CARDS_PER_DECK = 52;
+    
+    // Shared card instances, indexed by getIndex(), so decks can be rebuilt without allocating
+    private static final BlackjackCard[] POOL = new BlackjackCard[CARDS_PER_DECK];
+    
+    // Display symbols for every card, indexed by getIndex()
+    private static final String[] SYMBOLS = new String[CARDS_PER_DECK];
+    
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                BlackjackCard card = new BlackjackCard(suit, rank);
+                POOL[card.getIndex()] = card;
+                SYMBOLS[card.getIndex()] = rank.getSymbol() + suit.getSymbol();
+            }
+        }
+    }
+    
     // Instance variables
     private final Suit suit;
     private final Rank rank;
@@ -89,6 +108,47 @@ public class BlackjackCard extends Card {
         this.rank = rank;
     }
     
+    /**
+     * Gets the shared instance of the card with the given suit and rank.
+     * 
+     * @param suit the suit of the card
+     * @param rank the rank of the card
+     * @return the pooled card
+     */
+    public static BlackjackCard valueOf(Suit suit, Rank rank) {
+        return POOL[suit.ordinal() * 13 + rank.ordinal()];
+    }
+    
+    /**
+     * Gets the shared instance of the card with the given index.
+     * 
+     * @param index a card index from 0 to 51
+     * @return the pooled card
+     */
+    public static BlackjackCard fromIndex(int index) {
+        return POOL[index];
+    }
+    
+    /**
+     * Gets the index of this card within a standard deck (0 to 51).
+     * Cards are ordered by suit, then by rank.
+     * 
+     * @return the card index
+     */
+    public int getIndex() {
+        return suit.ordinal() * 13 + rank.ordinal();
+    }
+    
+    /**
+     * Gets the display symbol of the card with the given index.
+     * 
+     * @param index a card index from 0 to 51
+     * @return a string like "AS" or "KH"
+     */
+    public static String symbolOf(int index) {
+        return SYMBOLS[index];
+    }
+    
     /**
      * Gets the suit of this card.
      * 
@@ -135,7 +195,7 @@ public class BlackjackCard extends Card {
      */
     @Override
     public String toString() {
-        return rank.getSymbol() + suit.getSymbol();
+        return SYMBOLS[getIndex()];
     }
     
     /**
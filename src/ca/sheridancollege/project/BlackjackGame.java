@@ -7,7 +7,10 @@
  */
 package ca.sheridancollege.project;
 
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
 import java.util.Scanner;
 
 /**
@@ -18,26 +21,94 @@ public class BlackjackGame extends Game {
     
     private Deck deck;
     private Dealer dealer;
-    private ArrayList<BlackjackPlayer> blackjackPlayers;
+    private final PlayerRoster roster;
+    private final List<BlackjackPlayer> blackjackPlayers;   // Live view of the seated players
     private int roundNumber;
     private Scanner scanner;
-    private Boolean blackjackOccurred;
+    private final PrintStream out;      // Where the table is shown and players are prompted
+    private final long dealerDelayMillis;   // Pause after each dealer draw
+    private boolean blackjackOccurred;
+    private ProfileStore profileStore;  // Saves player points between games, if set
+    private boolean sideBetsEnabled;    // Offer Perfect Pairs and 21+3 with each bet
+    private final GameEventPublisher events;    // State changes for loggers, UIs and metrics
     
     // Game settings
     public static final int WINNING_POINTS = 200;   // Win condition
     public static final double BLACKJACK_PAYOUT = 1.5; // 3:2 payout for blackjack
+    public static final int RESHUFFLE_THRESHOLD = 15;  // Reshuffle when fewer cards remain
+    public static final int MAX_SEATS = 7;             // Seats at the table
+    public static final int SEATS_PER_DECK = 2;        // The shoe gets one deck per this many seats
+    public static final long DEALER_DELAY_MILLIS = 1000;   // Pause for dramatic effect
     
     /**
-     * Constructor to create a new Blackjack game.
+     * Constructor to create a new Blackjack game on the console.
      */
     public BlackjackGame() {
+        this(System.in, System.out, DEALER_DELAY_MILLIS);
+    }
+    
+    /**
+     * Constructor to create a new Blackjack game played over any pair of streams,
+     * such as a socket or a pipe from a scripted client.
+     * 
+     * @param in where player input is read, one answer per line
+     * @param out where the table is shown; it is flushed whenever input is awaited
+     * @param dealerDelayMillis the pause after each dealer draw, 0 for none
+     */
+    public BlackjackGame(InputStream in, PrintStream out, long dealerDelayMillis) {
         super("Blackjack");
         this.deck = new Deck();
         this.dealer = new Dealer();
-        this.blackjackPlayers = new ArrayList<>();
+        this.roster = new PlayerRoster(getPlayers(), MAX_SEATS);
+        this.blackjackPlayers = roster.getSeatedPlayers();
         this.roundNumber = 0;
-        this.scanner = new Scanner(System.in);
+        this.scanner = new Scanner(in);
+        this.out = out;
+        this.dealerDelayMillis = dealerDelayMillis;
         this.blackjackOccurred = false;
+        this.events = new GameEventPublisher();
+    }
+    
+    /**
+     * Gets the publisher of this game's events, to subscribe to.
+     * Events are delivered in order on pool threads and the publisher is
+     * closed (completing every subscriber) when the game ends.
+     * 
+     * @return the event publisher
+     */
+    public GameEventPublisher getEvents() {
+        return events;
+    }
+    
+    /**
+     * Publishes an event if anyone has subscribed.
+     * 
+     * @param event the event
+     */
+    private void publish(GameEvent event) {
+        if (events.hasSubscribers()) {
+            events.submit(event);
+        }
+    }
+    
+    /**
+     * Chooses whether players are offered the side bets each round.
+     * 
+     * @param sideBetsEnabled true to offer Perfect Pairs and 21+3
+     */
+    public void setSideBetsEnabled(boolean sideBetsEnabled) {
+        this.sideBetsEnabled = sideBetsEnabled;
+    }
+    
+    /**
+     * Chooses whether the table uses a continuous shuffling machine, which takes
+     * the discards back every round, instead of a shoe reshuffled when it runs low.
+     * 
+     * @param continuous true for a continuous shuffling machine
+     */
+    public void setContinuousShuffle(boolean continuous) {
+        this.deck = new Deck(deck.getNumDecks(), new Random(),
+                             continuous ? Deck.Mode.CONTINUOUS : Deck.Mode.SHOE);
     }
     
     /**
@@ -46,52 +117,92 @@ public class BlackjackGame extends Game {
     public void start() {
         printWelcome();
         setupPlayers();
+        sizeShoe();
+    }
+    
+    /**
+     * Gives the shoe one deck for every SEATS_PER_DECK seats, so that a full
+     * table cannot empty it in the middle of a round.
+     */
+    private void sizeShoe() {
+        int decks = (blackjackPlayers.size() + SEATS_PER_DECK - 1) / SEATS_PER_DECK;
+        if (decks > deck.getNumDecks()) {
+            deck = new Deck(decks, new Random(), deck.getMode());
+        }
     }
     
     /**
      * Prints the welcome message and game rules.
      */
     private void printWelcome() {
-        System.out.println("+----------------------------------------------------------+");
-        System.out.println("|              WELCOME TO BLACKJACK!                       |");
-        System.out.println("+----------------------------------------------------------+");
-        System.out.println("|  Goal: Get as close to 21 as possible without busting    |");
-        System.out.println("|                                                          |");
-        System.out.println("|  Card Values:                                            |");
-        System.out.println("|    * Number cards (2-10): Face value                     |");
-        System.out.println("|    * Face cards (J, Q, K): 10 points                     |");
-        System.out.println("|    * Ace: 1 or 11 points (automatic)                     |");
-        System.out.println("|                                                          |");
-        System.out.println("|  Actions:                                                |");
-        System.out.println("|    * Hit: Draw another card                              |");
-        System.out.println("|    * Stand: Keep your current hand                       |");
-        System.out.println("|                                                          |");
-        System.out.println("|  Win Condition: Reach " + WINNING_POINTS + " points to win!                |");
-        System.out.println("+----------------------------------------------------------+");
-        System.out.println();
+        out.println("+----------------------------------------------------------+");
+        out.println("|              WELCOME TO BLACKJACK!                       |");
+        out.println("+----------------------------------------------------------+");
+        out.println("|  Goal: Get as close to 21 as possible without busting    |");
+        out.println("|                                                          |");
+        out.println("|  Card Values:                                            |");
+        out.println("|    * Number cards (2-10): Face value                     |");
+        out.println("|    * Face cards (J, Q, K): 10 points                     |");
+        out.println("|    * Ace: 1 or 11 points (automatic)                     |");
+        out.println("|                                                          |");
+        out.println("|  Actions:                                                |");
+        out.println("|    * Hit: Draw another card                              |");
+        out.println("|    * Stand: Keep your current hand                       |");
+        out.println("|                                                          |");
+        out.println("|  Win Condition: Reach " + WINNING_POINTS + " points to win!                |");
+        out.println("+----------------------------------------------------------+");
+        out.println();
     }
     
     /**
      * Sets up players for the game.
      */
     private void setupPlayers() {
-        System.out.print("Enter number of players (1-2): ");
-        int numPlayers = getValidInput(1, 2);
+        out.print("Enter number of players (1-" + MAX_SEATS + "): ");
+        int numPlayers = getValidInput(1, MAX_SEATS);
         
         for (int i = 1; i <= numPlayers; i++) {
-            System.out.print("Enter name for Player " + i + ": ");
+            out.print("Enter name for Player " + i + ": ");
+            out.flush();
             String name = scanner.nextLine().trim();
             if (name.isEmpty()) {
                 name = "Player " + i;
             }
-            BlackjackPlayer player = new BlackjackPlayer(name);
-            blackjackPlayers.add(player);
-            getPlayers().add(player);
+            if (roster.isRegistered(name)) {
+                String baseName = name;
+                for (int suffix = 2; roster.isRegistered(name); suffix++) {
+                    name = baseName + " (" + suffix + ")";
+                }
+                out.println("That name is taken; you will play as " + name + ".");
+            }
+            int id = roster.register(new BlackjackPlayer(name, savedPoints(name)));
+            roster.assignSeat(id);
         }
         
-        System.out.println("\nPlayers ready! Each player starts with " + 
+        out.println("\nPlayers ready! New players start with " + 
                            BlackjackPlayer.STARTING_POINTS + " points.");
-        System.out.println();
+        out.println();
+    }
+    
+    /**
+     * Gets the points a player starts with: their saved points if they have
+     * a profile with points left, otherwise the starting points. A player who
+     * already reached WINNING_POINTS won that game, so they start a new one
+     * with the starting points instead of winning after the first round.
+     * 
+     * @param name the player name
+     * @return the starting points for this player
+     */
+    private int savedPoints(String name) {
+        ProfileStore.Profile profile = profileStore == null ? null : profileStore.getProfile(name);
+        if (profile != null && profile.getPoints() >= WINNING_POINTS) {
+            out.println("Welcome back, " + name + "! You won your last game with " + profile.getPoints()
+                    + " points, so you start a new one with " + BlackjackPlayer.STARTING_POINTS + ".");
+        } else if (profile != null && profile.getPoints() > 0) {
+            out.println("Welcome back, " + name + "! You have " + profile.getPoints() + " points.");
+            return profile.getPoints();
+        }
+        return BlackjackPlayer.STARTING_POINTS;
     }
     
     /**
@@ -105,45 +216,62 @@ public class BlackjackGame extends Game {
         
         while (!gameOver) {
             roundNumber++;
-            System.out.println("\n============================================================");
-            System.out.println("                    ROUND " + roundNumber);
-            System.out.println("============================================================");
+            out.println("\n============================================================");
+            out.println("                    ROUND " + roundNumber);
+            out.println("============================================================");
+            publish(GameEvent.roundStart(roundNumber));
             
             // Reset for new round
+            ProfileHooks.Span span = ProfileHooks.beginPhase("reset");
             resetRound();
             
-            // Check if deck needs reshuffling
-            if (deck.getSize() < 15) {
-                System.out.println("Reshuffling deck...\n");
-                deck.reset();
+            // Check if deck needs reshuffling; a bigger table's shoe keeps back that many cards per deck
+            if (deck.getSize() < RESHUFFLE_THRESHOLD * deck.getNumDecks()) {
+                reshuffle();
             }
+            ProfileHooks.end(span);
             
             // Betting phase
-            if (!bettingPhase()) {
+            span = ProfileHooks.beginPhase("betting");
+            boolean betPlaced = bettingPhase();
+            ProfileHooks.end(span);
+            if (!betPlaced) {
                 gameOver = true;
                 continue;
             }
             
             // Deal initial cards
+            span = ProfileHooks.beginPhase("deal");
             dealInitialCards();
+            ProfileHooks.end(span);
             
             //Check for blackjack
 
             
             // If there is a blackjack
-            if (!checkBlackjackOccurrence()) {
+            span = ProfileHooks.beginPhase("settle");
+            blackjackOccurred = checkBlackjackOccurrence();
+            ProfileHooks.end(span);
+            if (!blackjackOccurred) {
                 // Player turns
-                for (BlackjackPlayer player : blackjackPlayers) {
+                span = ProfileHooks.beginPhase("players");
+                for (int i = 0; i < blackjackPlayers.size(); i++) {
+                    BlackjackPlayer player = blackjackPlayers.get(i);
                     if (player.hasPoints()) {
                         playerTurn(player);
                     }
                 }
+                ProfileHooks.end(span);
                 
                 // Dealer turn
+                span = ProfileHooks.beginPhase("dealer");
                 dealerTurn();
+                ProfileHooks.end(span);
                 
                 // Resolve round
+                span = ProfileHooks.beginPhase("settle");
                 resolveRound();
+                ProfileHooks.end(span);
             }
             
             // Show points summary
@@ -153,46 +281,76 @@ public class BlackjackGame extends Game {
             gameOver = checkGameOver();
             
             if (!gameOver) {
-                System.out.print("\nPress Enter to continue to next round...");
+                out.print("\nPress Enter to continue to next round...");
+                out.flush();
                 scanner.nextLine();
             }
         }
         
         declareWinner();
+        events.close();
     }
     
     /**
      * Resets all hands for a new round.
      */
     private void resetRound() {
+        deck.discard(dealer.getHand());
         dealer.resetForNewRound();
-        for (BlackjackPlayer player : blackjackPlayers) {
-            player.resetForNewRound();
+        for (int i = 0; i < blackjackPlayers.size(); i++) {
+            deck.discard(blackjackPlayers.get(i).getHand());
+            blackjackPlayers.get(i).resetForNewRound();
         }
     }
     
-    /*
-    *
-    */
-    
-    private Boolean checkBlackjackOccurrence(){
-        Boolean dealerBlackjack = dealer.hasBlackjack();
-        Boolean playerBlackjack = false;
-        for (BlackjackPlayer player: blackjackPlayers) 
-            playerBlackjack |= player.hasBlackjack();
+    /**
+     * Checks whether the dealer or any player was dealt a Blackjack.
+     * If so, all hands are shown and the round is resolved immediately.
+     * 
+     * @return true if a Blackjack occurred and the round is already resolved
+     */
+    private boolean checkBlackjackOccurrence(){
+        boolean dealerBlackjack = dealer.hasBlackjack();
+        boolean playerBlackjack = false;
+        for (int i = 0; i < blackjackPlayers.size(); i++) 
+            playerBlackjack |= blackjackPlayers.get(i).hasBlackjack();
         
-        if (dealerBlackjack | playerBlackjack){
+        if (dealerBlackjack || playerBlackjack){
             if (dealerBlackjack && playerBlackjack)
-                System.out.println("\n*** Dealer and Player has BLACKJACK! ***");
+                out.println("\n*** Dealer and Player has BLACKJACK! ***");
             else
-                System.out.println(dealerBlackjack ? "\n*** Dealer has BLACKJACK! ***" : "\n***Player has BLACKJACK! ***");
+                out.println(dealerBlackjack ? "\n*** Dealer has BLACKJACK! ***" : "\n***Player has BLACKJACK! ***");
             showAllHands();
+            publish(GameEvent.dealerReveal(roundNumber, dealer));
             resolveRound();
             return true;
         }
         return false;
     }
     
+    /**
+     * Rebuilds and shuffles the shoe.
+     */
+    private void reshuffle() {
+        out.println("Reshuffling deck...\n");
+        deck.reset();
+        publish(GameEvent.reshuffle(roundNumber, deck.getSize()));
+    }
+    
+    /**
+     * Draws a card into a hand, reshuffling first if the shoe has run out in
+     * the middle of a round.
+     * 
+     * @param player the player or dealer taking the card
+     * @return the card drawn, or null if none could be drawn
+     */
+    private Card hit(BlackjackPlayer player) {
+        if (deck.isEmpty()) {
+            reshuffle();
+        }
+        return player.hit(deck);
+    }
+    
     /**
      * Handles the betting phase for all players.
      * 
@@ -201,57 +359,131 @@ public class BlackjackGame extends Game {
     private boolean bettingPhase() {
         boolean anyBets = false;
         
-        for (BlackjackPlayer player : blackjackPlayers) {
+        for (int i = 0; i < blackjackPlayers.size(); i++) {
+            BlackjackPlayer player = blackjackPlayers.get(i);
             if (player.getPoints() <= 0) {
-                System.out.println(player.getName() + " has no points left and cannot bet.");
+                out.println(player.getName() + " has no points left and cannot bet.");
                 continue;
             }
             
-            System.out.println("\n" + player.getName() + "'s turn to bet.");
-            System.out.println("Current points: " + player.getPoints());
-            System.out.print("Enter bet amount (1-" + player.getPoints() + ", or 0 to quit): ");
+            out.println("\n" + player.getName() + "'s turn to bet.");
+            out.println("Current points: " + player.getPoints());
+            out.print("Enter bet amount (1-" + player.getPoints() + ", or 0 to quit): ");
             
             int bet = getValidInput(0, player.getPoints());
             
             if (bet == 0) {
-                System.out.println(player.getName() + " has chosen to quit.");
+                out.println(player.getName() + " has chosen to quit.");
                 player.removePoints(player.getPoints()); // Set to 0
+                if (profileStore != null) {
+                    profileStore.recordPoints(player.getName(), player.getPoints());
+                }
+                publish(GameEvent.playerAction(roundNumber, player.getName(), GameEvent.Action.QUIT, 0));
             } else {
                 player.placeBet(bet);
-                System.out.println(player.getName() + " bets " + bet + " points.");
+                out.println(player.getName() + " bets " + bet + " points.");
+                publish(GameEvent.playerAction(roundNumber, player.getName(), GameEvent.Action.BET, bet));
                 anyBets = true;
+                if (sideBetsEnabled) {
+                    sideBettingPhase(player);
+                }
             }
         }
         
         return anyBets;
     }
     
+    /**
+     * Offers a player each side bet, up to the points not already bet.
+     * 
+     * @param player the player who has just placed a main bet
+     */
+    private void sideBettingPhase(BlackjackPlayer player) {
+        SideBet[] sideBets = SideBet.values();
+        for (int i = 0; i < sideBets.length; i++) {
+            int available = player.getAccount().getAvailable();
+            if (available <= 0) {
+                return;
+            }
+            out.print("Enter " + sideBets[i].getLabel() + " side bet (0-" + available + ", 0 for none): ");
+            int amount = getValidInput(0, available);
+            if (amount > 0) {
+                player.placeSideBet(sideBets[i], amount);
+                out.println(player.getName() + " bets " + amount + " points on " + sideBets[i].getLabel() + ".");
+            }
+        }
+    }
+    
     /**
      * Deals initial two cards to all players and dealer.
      */
     private void dealInitialCards() {
-        System.out.println("\n--- Dealing cards ---");
+        out.println("\n--- Dealing cards ---");
         
         // Deal 2 cards to each player and dealer (alternating)
-        for (int i = 0; i < 2; i++) {
-            for (BlackjackPlayer player : blackjackPlayers) {
-                if (player.getCurrentBet() > 0) {
-                    player.hit(deck);
-                }
-            }
-            dealer.hit(deck);
+        deck.dealInitial(blackjackPlayers, dealer);
+        if (events.hasSubscribers()) {
+            publishInitialDeal();
         }
         
         // Show hands
-        for (BlackjackPlayer player : blackjackPlayers) {
+        for (int i = 0; i < blackjackPlayers.size(); i++) {
+            BlackjackPlayer player = blackjackPlayers.get(i);
             if (player.getCurrentBet() > 0) {
-                System.out.println(player.getName() + ": " + player.getHand());
+                out.println(player.getName() + ": " + player.getHand());
                 if (player.hasBlackjack()) {
-                    System.out.println("  ** BLACKJACK! **");
+                    out.println("  ** BLACKJACK! **");
                 }
             }
         }
-        System.out.println("Dealer: " + dealer.getHiddenHandString());
+        out.println("Dealer: " + dealer.getHiddenHandString());
+        
+        if (sideBetsEnabled) {
+            resolveSideBets();
+        }
+    }
+    
+    /**
+     * Publishes the initial cards in the order they were dealt, with the
+     * dealer's hole card hidden until the dealer reveals.
+     */
+    private void publishInitialDeal() {
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < blackjackPlayers.size(); i++) {
+                BlackjackPlayer player = blackjackPlayers.get(i);
+                if (player.getCurrentBet() > 0 && player.getHand().getCards().size() > pass) {
+                    publish(GameEvent.cardDealt(roundNumber, player.getName(), player.getHand().getCards().get(pass)));
+                }
+            }
+            if (dealer.getHand().getCards().size() > pass) {
+                Card card = pass == 0 ? dealer.getHand().getCards().get(0) : null;
+                publish(GameEvent.cardDealt(roundNumber, dealer.getName(), card));
+            }
+        }
+    }
+    
+    /**
+     * Settles every side bet on the initial deal, using the dealer's up card for 21+3.
+     */
+    private void resolveSideBets() {
+        SideBet[] sideBets = SideBet.values();
+        for (int i = 0; i < blackjackPlayers.size(); i++) {
+            BlackjackPlayer player = blackjackPlayers.get(i);
+            for (int j = 0; j < sideBets.length; j++) {
+                int amount = player.getSideBet(sideBets[j]);
+                if (amount <= 0) {
+                    continue;
+                }
+                SideBet.Outcome outcome = sideBets[j].outcome(player.getHand(), dealer.getVisibleCard());
+                int pointsChange = outcome.pointsChange(amount);
+                player.settleSideBet(sideBets[j], pointsChange);
+                publish(GameEvent.sideBetSettlement(roundNumber, player.getName(), sideBets[j], outcome, pointsChange));
+                
+                String changeStr = pointsChange >= 0 ? "+" + pointsChange : String.valueOf(pointsChange);
+                out.println(player.getName() + " " + sideBets[j].getLabel() + ": "
+                                   + outcome.getLabel() + " (" + changeStr + " points)");
+            }
+        }
     }
     
     /**
@@ -264,36 +496,45 @@ public class BlackjackGame extends Game {
             return;
         }
         
-        System.out.println("\n--- " + player.getName() + "'s Turn ---");
+        out.println("\n--- " + player.getName() + "'s Turn ---");
         
         // Skip if player has Blackjack
         if (player.hasBlackjack()) {
-            System.out.println("You have Blackjack! Waiting for dealer...");
+            out.println("You have Blackjack! Waiting for dealer...");
             player.stand();
+            publish(GameEvent.playerAction(roundNumber, player.getName(), GameEvent.Action.STAND, 0));
             return;
         }
         
         while (!player.isStanding() && !player.isBusted()) {
-            System.out.println("\nYour hand: " + player.getHand());
-            System.out.println("Dealer shows: " + dealer.getVisibleCard());
-            System.out.println("\nChoose action:");
-            System.out.println("  1. Hit (draw a card)");
-            System.out.println("  2. Stand (keep current hand)");
-            System.out.print("Enter choice (1-2): ");
+            out.println("\nYour hand: " + player.getHand());
+            out.println("Dealer shows: " + dealer.getVisibleCard());
+            out.println("\nChoose action:");
+            out.println("  1. Hit (draw a card)");
+            out.println("  2. Stand (keep current hand)");
+            out.print("Enter choice (1-2): ");
             
             int choice = getValidInput(1, 2);
             
             if (choice == 1) {
-                Card drawnCard = player.hit(deck);
-                System.out.println("You drew: " + drawnCard);
-                System.out.println("Hand value: " + player.getHandValue());
+                Card drawnCard = hit(player);
+                if (drawnCard == null) {
+                    out.println("Error: No cards left to draw, " + player.getName() + " stands.");
+                    player.stand();
+                    break;
+                }
+                publish(GameEvent.playerAction(roundNumber, player.getName(), GameEvent.Action.HIT, 0));
+                publish(GameEvent.cardDealt(roundNumber, player.getName(), drawnCard));
+                out.println("You drew: " + drawnCard);
+                out.println("Hand value: " + player.getHandValue());
                 
                 if (player.isBusted()) {
-                    System.out.println("BUST! Your hand exceeds 21.");
+                    out.println("BUST! Your hand exceeds 21.");
                 }
             } else {
                 player.stand();
-                System.out.println(player.getName() + " stands with " + player.getHandValue());
+                publish(GameEvent.playerAction(roundNumber, player.getName(), GameEvent.Action.STAND, 0));
+                out.println(player.getName() + " stands with " + player.getHandValue());
             }
         }
     }
@@ -302,12 +543,14 @@ public class BlackjackGame extends Game {
      * Handles the dealer's turn.
      */
     private void dealerTurn() {
-        System.out.println("\n--- Dealer's Turn ---");
-        System.out.println("Dealer reveals: " + dealer.getFullHandString());
+        out.println("\n--- Dealer's Turn ---");
+        out.println("Dealer reveals: " + dealer.getFullHandString());
+        publish(GameEvent.dealerReveal(roundNumber, dealer));
         
         // Check if all players busted
         boolean allBusted = true;
-        for (BlackjackPlayer player : blackjackPlayers) {
+        for (int i = 0; i < blackjackPlayers.size(); i++) {
+            BlackjackPlayer player = blackjackPlayers.get(i);
             if (player.getCurrentBet() > 0 && !player.isBusted()) {
                 allBusted = false;
                 break;
@@ -315,27 +558,34 @@ public class BlackjackGame extends Game {
         }
         
         if (allBusted) {
-            System.out.println("All players busted. Dealer wins automatically.");
+            out.println("All players busted. Dealer wins automatically.");
             return;
         }
         
         // Dealer plays
         while (dealer.shouldHit()) {
-            Card drawnCard = dealer.hit(deck);
-            System.out.println("Dealer draws: " + drawnCard);
-            System.out.println("Dealer's hand: " + dealer.getFullHandString());
+            Card drawnCard = hit(dealer);
+            if (drawnCard == null) {
+                out.println("Error: No cards left to draw, dealer stands.");
+                break;
+            }
+            publish(GameEvent.cardDealt(roundNumber, dealer.getName(), drawnCard));
+            out.println("Dealer draws: " + drawnCard);
+            out.println("Dealer's hand: " + dealer.getFullHandString());
             
-            try {
-                Thread.sleep(1000); // Pause for dramatic effect
-            } catch (InterruptedException e) {
-                // Ignore
+            if (dealerDelayMillis > 0) {
+                try {
+                    Thread.sleep(dealerDelayMillis);
+                } catch (InterruptedException e) {
+                    // Ignore
+                }
             }
         }
         
         if (dealer.isBusted()) {
-            System.out.println("Dealer BUSTS with " + dealer.getHandValue() + "!");
+            out.println("Dealer BUSTS with " + dealer.getHandValue() + "!");
         } else {
-            System.out.println("Dealer stands with " + dealer.getHandValue());
+            out.println("Dealer stands with " + dealer.getHandValue());
         }
     }
     
@@ -343,69 +593,27 @@ public class BlackjackGame extends Game {
      * Resolves the round and updates points.
      */
     private void resolveRound() {
-        System.out.println("\n--- Round Results ---");
+        out.println("\n--- Round Results ---");
         
-        int dealerValue = dealer.getHandValue();
-        boolean dealerBusted = dealer.isBusted();
-        boolean dealerBlackjack = dealer.hasBlackjack();
-        
-        for (BlackjackPlayer player : blackjackPlayers) {
+        for (int i = 0; i < blackjackPlayers.size(); i++) {
+            BlackjackPlayer player = blackjackPlayers.get(i);
             if (player.getCurrentBet() <= 0) {
                 continue;
             }
             
-            int bet = player.getCurrentBet();
-            int playerValue = player.getHandValue();
-            boolean playerBusted = player.isBusted();
-            boolean playerBlackjack = player.hasBlackjack();
-            
-            String result;
-            int pointsChange;
-            
-            if ((playerBusted && !dealerBusted) || 
-                    ((playerBusted && dealerBusted) && (player.getHandValue() > dealer.getHandValue()))
-                    ) {
-                // Player busted or both player and dealer busted but player hand has higher value - loses bet
-                result = "LOSE (Busted)";
-                pointsChange = -bet;
-            } else if (dealerBlackjack && !playerBlackjack) {
-                // Dealer has blackjack, player doesn't
-                result = "LOSE (Dealer Blackjack)";
-                pointsChange = -bet;
-            } else if (playerBlackjack && !dealerBlackjack) {
-                // Player has blackjack, dealer doesn't - 3:2 payout
-                result = "WIN (Blackjack!)";
-                pointsChange = (int)(bet * BLACKJACK_PAYOUT);
-            } else if ((dealerBusted && !playerBusted) || 
-                        ((dealerBusted && playerBusted) && (dealer.getHandValue() > player.getHandValue()))
-                    ) {
-                // Dealer busted or both dealer and player busted but dealer hand has higher value - player wins
-                result = "WIN (Dealer Busted)";
-                pointsChange = bet;
-            } else if (playerValue > dealerValue) {
-                // Player has higher value
-                result = "WIN";
-                pointsChange = bet;
-            } else if (playerValue < dealerValue) {
-                // Dealer has higher value
-                result = "LOSE";
-                pointsChange = -bet;
-            } else {
-                // Push (tie)
-                result = "PUSH (Tie)";
-                pointsChange = 0;
-            }
+            RoundResult result = RoundResult.resolve(player.getHand(), dealer.getHand());
+            int pointsChange = result.pointsChange(player.getCurrentBet());
             
             // Apply points change
-            if (pointsChange > 0) {
-                player.addPoints(pointsChange);
-            } else if (pointsChange < 0) {
-                player.removePoints(-pointsChange);
+            player.settleBet(pointsChange);
+            if (profileStore != null) {
+                profileStore.recordSettlement(player.getName(), player.getPoints(), result, pointsChange);
             }
+            publish(GameEvent.settlement(roundNumber, player.getName(), result, pointsChange, player.getPoints()));
             
             // Display result
             String changeStr = pointsChange >= 0 ? "+" + pointsChange : String.valueOf(pointsChange);
-            System.out.println(player.getName() + ": " + result + " (" + changeStr + " points)");
+            out.println(player.getName() + ": " + result.getLabel() + " (" + changeStr + " points)");
         }
     }
     
@@ -413,9 +621,10 @@ public class BlackjackGame extends Game {
      * Shows the points summary for all players.
      */
     private void showPointsSummary() {
-        System.out.println("\n--- Points Summary ---");
-        for (BlackjackPlayer player : blackjackPlayers) {
-            System.out.println(player.getName() + ": " + player.getPoints() + " points");
+        out.println("\n--- Points Summary ---");
+        for (int i = 0; i < blackjackPlayers.size(); i++) {
+            BlackjackPlayer player = blackjackPlayers.get(i);
+            out.println(player.getName() + ": " + player.getPoints() + " points");
         }
     }
     
@@ -423,13 +632,14 @@ public class BlackjackGame extends Game {
      * Shows all hands (used when dealer has Blackjack).
      */
     private void showAllHands() {
-        System.out.println("\n--- All Hands ---");
-        for (BlackjackPlayer player : blackjackPlayers) {
+        out.println("\n--- All Hands ---");
+        for (int i = 0; i < blackjackPlayers.size(); i++) {
+            BlackjackPlayer player = blackjackPlayers.get(i);
             if (player.getCurrentBet() > 0) {
-                System.out.println(player.getName() + ": " + player.getHand());
+                out.println(player.getName() + ": " + player.getHand());
             }
         }
-        System.out.println("Dealer: " + dealer.getFullHandString());
+        out.println("Dealer: " + dealer.getFullHandString());
     }
     
     /**
@@ -438,23 +648,31 @@ public class BlackjackGame extends Game {
      * @return true if game should end
      */
     private boolean checkGameOver() {
+        return isGameOver(blackjackPlayers);
+    }
+    
+    /**
+     * Checks if a game is over: a player has reached the winning points,
+     * or every player is out of points.
+     * 
+     * @param players the players in the game
+     * @return true if the game should end
+     */
+    public static boolean isGameOver(List<BlackjackPlayer> players) {
         // Check if any player won
-        for (BlackjackPlayer player : blackjackPlayers) {
-            if (player.getPoints() >= WINNING_POINTS) {
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).getPoints() >= WINNING_POINTS) {
                 return true;
             }
         }
         
         // Check if all players are out
-        boolean anyPlayersLeft = false;
-        for (BlackjackPlayer player : blackjackPlayers) {
-            if (player.getPoints() > 0) {
-                anyPlayersLeft = true;
-                break;
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).getPoints() > 0) {
+                return false;
             }
         }
-        
-        return !anyPlayersLeft;
+        return true;
     }
     
     /**
@@ -462,43 +680,40 @@ public class BlackjackGame extends Game {
      */
     @Override
     public void declareWinner() {
-        System.out.println("\n+----------------------------------------------------------+");
-        System.out.println("|                   GAME OVER                              |");
-        System.out.println("+----------------------------------------------------------+");
+        out.println("\n+----------------------------------------------------------+");
+        out.println("|                   GAME OVER                              |");
+        out.println("+----------------------------------------------------------+");
         
-        // Find winner(s)
+        // Find winner: the leaderboard breaks ties by registration order
+        List<BlackjackPlayer> top = roster.getTopPlayers(1);
         BlackjackPlayer winner = null;
-        int highestPoints = 0;
-        
-        for (BlackjackPlayer player : blackjackPlayers) {
-            if (player.getPoints() > highestPoints) {
-                highestPoints = player.getPoints();
-                winner = player;
-            }
+        if (!top.isEmpty() && top.get(0).getPoints() > 0) {
+            winner = top.get(0);
         }
         
-        System.out.println("|  Total Rounds Played: " + roundNumber);
-        System.out.println("|");
-        System.out.println("|  Final Standings:");
-        for (BlackjackPlayer player : blackjackPlayers) {
+        out.println("|  Total Rounds Played: " + roundNumber);
+        out.println("|");
+        out.println("|  Final Standings:");
+        for (int i = 0; i < blackjackPlayers.size(); i++) {
+            BlackjackPlayer player = blackjackPlayers.get(i);
             String status = player.getPoints() >= WINNING_POINTS ? " ** WINNER!" : 
                            player.getPoints() <= 0 ? " (Eliminated)" : "";
-            System.out.println("|    " + player.getName() + ": " + player.getPoints() + " points" + status);
+            out.println("|    " + player.getName() + ": " + player.getPoints() + " points" + status);
         }
         
         if (winner != null && winner.getPoints() >= WINNING_POINTS) {
-            System.out.println("|");
-            System.out.println("|  *** Congratulations " + winner.getName() + "! ***");
+            out.println("|");
+            out.println("|  *** Congratulations " + winner.getName() + "! ***");
         } else if (winner != null) {
-            System.out.println("|");
-            System.out.println("|  " + winner.getName() + " wins by having the most points!");
+            out.println("|");
+            out.println("|  " + winner.getName() + " wins by having the most points!");
         } else {
-            System.out.println("|");
-            System.out.println("|  No winner - all players eliminated.");
+            out.println("|");
+            out.println("|  No winner - all players eliminated.");
         }
         
-        System.out.println("+----------------------------------------------------------+");
-        System.out.println("\nThank you for playing!");
+        out.println("+----------------------------------------------------------+");
+        out.println("\nThank you for playing!");
     }
     
     /**
@@ -510,15 +725,16 @@ public class BlackjackGame extends Game {
      */
     private int getValidInput(int min, int max) {
         while (true) {
+            out.flush();
             try {
                 String input = scanner.nextLine().trim();
                 int value = Integer.parseInt(input);
                 if (value >= min && value <= max) {
                     return value;
                 }
-                System.out.print("Please enter a number between " + min + " and " + max + ": ");
+                out.print("Please enter a number between " + min + " and " + max + ": ");
             } catch (NumberFormatException e) {
-                System.out.print("Invalid input. Please enter a number: ");
+                out.print("Invalid input. Please enter a number: ");
             }
         }
     }
@@ -532,6 +748,24 @@ public class BlackjackGame extends Game {
         return roundNumber;
     }
     
+    /**
+     * Sets the store used to load and save player points and statistics.
+     * 
+     * @param profileStore the store, or null to keep points in memory only
+     */
+    public void setProfileStore(ProfileStore profileStore) {
+        this.profileStore = profileStore;
+    }
+    
+    /**
+     * Gets the roster of registered and seated players.
+     * 
+     * @return the roster
+     */
+    public PlayerRoster getRoster() {
+        return roster;
+    }
+    
     /**
      * Gets the dealer.
      * 
@@ -14,24 +14,39 @@ package ca.sheridancollege.project;
 public class BlackjackPlayer extends Player {
     
     private Hand hand;          // The player's current hand
-    private int points;         // The player's point total (betting currency)
+    private final BankrollLedger.Account account;  // The player's points (betting currency)
     private int currentBet;     // The current bet amount
+    private boolean betReserved;    // Whether currentBet is still reserved in the account
+    private final int[] sideBets;   // Unsettled side bets by SideBet ordinal, reserved in the account
     private boolean standing;   // Whether the player has chosen to stand
+    private int id = -1;        // Roster id, or -1 if not registered
+    private PointsListener pointsListener;  // Notified when points change
     
     // Constants
     public static final int STARTING_POINTS = 100;
     
+    /**
+     * Receives a callback whenever a player's points change,
+     * so indexes ordered by points can be kept up to date.
+     */
+    public interface PointsListener {
+        
+        /**
+         * Called after a player's points have changed.
+         * 
+         * @param player the player
+         * @param oldPoints the points before the change
+         */
+        void pointsChanged(BlackjackPlayer player, int oldPoints);
+    }
+    
     /**
      * Constructor to create a player with starting points.
      * 
      * @param name the player's name
      */
     public BlackjackPlayer(String name) {
-        super(name);
-        this.hand = new Hand();
-        this.points = STARTING_POINTS;
-        this.currentBet = 0;
-        this.standing = false;
+        this(name, STARTING_POINTS);
     }
     
     /**
@@ -41,9 +56,21 @@ public class BlackjackPlayer extends Player {
      * @param startingPoints the initial point total
      */
     public BlackjackPlayer(String name, int startingPoints) {
+        this(name, new BankrollLedger.Account(startingPoints));
+    }
+    
+    /**
+     * Constructor to create a player whose points are held in a ledger account.
+     * The same account can back players at several tables at once.
+     * 
+     * @param name the player's name
+     * @param account the account holding the player's points
+     */
+    public BlackjackPlayer(String name, BankrollLedger.Account account) {
         super(name);
         this.hand = new Hand();
-        this.points = startingPoints;
+        this.account = account;
+        this.sideBets = new int[SideBet.values().length];
         this.currentBet = 0;
         this.standing = false;
     }
@@ -63,7 +90,16 @@ public class BlackjackPlayer extends Player {
      * @return the points
      */
     public int getPoints() {
-        return points;
+        return account.getBalance();
+    }
+    
+    /**
+     * Gets the account holding the player's points.
+     * 
+     * @return the account
+     */
+    public BankrollLedger.Account getAccount() {
+        return account;
     }
     
     /**
@@ -73,7 +109,7 @@ public class BlackjackPlayer extends Player {
      */
     public void addPoints(int amount) {
         if (amount > 0) {
-            this.points += amount;
+            firePointsChanged(account.credit(amount));
         }
     }
     
@@ -84,13 +120,68 @@ public class BlackjackPlayer extends Player {
      * @return true if successful, false if insufficient points
      */
     public boolean removePoints(int amount) {
-        if (amount > 0 && this.points >= amount) {
-            this.points -= amount;
-            return true;
+        if (amount > 0) {
+            int oldPoints = account.debit(amount);
+            if (oldPoints >= 0) {
+                firePointsChanged(oldPoints);
+                return true;
+            }
         }
         return false;
     }
     
+    /**
+     * Notifies the listener, if any, that the points changed.
+     * 
+     * @param oldPoints the points before the change
+     */
+    private void firePointsChanged(int oldPoints) {
+        if (pointsListener != null) {
+            pointsListener.pointsChanged(this, oldPoints);
+        }
+    }
+    
+    /**
+     * Sets the listener notified whenever the points change.
+     * 
+     * @param pointsListener the listener, or null for none
+     */
+    public void setPointsListener(PointsListener pointsListener) {
+        this.pointsListener = pointsListener;
+    }
+    
+    /**
+     * Gets the player's roster id.
+     * 
+     * @return the id, or -1 if the player is not registered in a roster
+     */
+    public int getId() {
+        return id;
+    }
+    
+    /**
+     * Sets the player's roster id. Called by PlayerRoster on registration.
+     * 
+     * @param id the id
+     */
+    void setId(int id) {
+        this.id = id;
+    }
+    
+    /**
+     * Settles the current bet: releases its reservation and applies the result
+     * to the player's total in one step.
+     * 
+     * @param pointsChange the points won (positive) or lost (negative)
+     */
+    public void settleBet(int pointsChange) {
+        int oldPoints = account.settle(betReserved ? currentBet : 0, pointsChange);
+        betReserved = false;
+        if (pointsChange != 0) {
+            firePointsChanged(oldPoints);
+        }
+    }
+    
     /**
      * Gets the current bet amount.
      * 
@@ -101,26 +192,98 @@ public class BlackjackPlayer extends Player {
     }
     
     /**
-     * Places a bet for the current round.
+     * Places a bet for the current round, reserving the amount from the player's points
+     * so it cannot be spent elsewhere until the bet is settled.
      * 
      * @param amount the amount to bet
      * @return true if bet was placed successfully
      */
     public boolean placeBet(int amount) {
-        if (amount > 0 && amount <= points) {
+        if (amount <= 0) {
+            return false;
+        }
+        releaseMainBet();
+        if (account.reserve(amount)) {
             this.currentBet = amount;
+            this.betReserved = true;
             return true;
         }
         return false;
     }
     
     /**
-     * Clears the current bet (called after round ends).
+     * Clears the current bet and side bets (called after round ends), releasing any unsettled.
      */
     public void clearBet() {
+        releaseMainBet();
+        for (int i = 0; i < sideBets.length; i++) {
+            if (sideBets[i] > 0) {
+                account.release(sideBets[i]);
+                sideBets[i] = 0;
+            }
+        }
+    }
+    
+    /**
+     * Releases the main bet if it is still reserved and resets it to 0.
+     */
+    private void releaseMainBet() {
+        if (betReserved) {
+            account.release(currentBet);
+            betReserved = false;
+        }
         this.currentBet = 0;
     }
     
+    /**
+     * Places a side bet for the current round, reserving the amount from the
+     * player's points until the side bet is settled.
+     * 
+     * @param sideBet the side bet
+     * @param amount the amount to bet
+     * @return true if the side bet was placed successfully
+     */
+    public boolean placeSideBet(SideBet sideBet, int amount) {
+        if (amount <= 0) {
+            return false;
+        }
+        int slot = sideBet.ordinal();
+        if (sideBets[slot] > 0) {
+            account.release(sideBets[slot]);
+            sideBets[slot] = 0;
+        }
+        if (account.reserve(amount)) {
+            sideBets[slot] = amount;
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Gets the unsettled amount on a side bet.
+     * 
+     * @param sideBet the side bet
+     * @return the amount bet, or 0 if none
+     */
+    public int getSideBet(SideBet sideBet) {
+        return sideBets[sideBet.ordinal()];
+    }
+    
+    /**
+     * Settles a side bet: releases its reservation and applies the result.
+     * 
+     * @param sideBet the side bet
+     * @param pointsChange the points won (positive) or lost (negative)
+     */
+    public void settleSideBet(SideBet sideBet, int pointsChange) {
+        int slot = sideBet.ordinal();
+        int oldPoints = account.settle(sideBets[slot], pointsChange);
+        sideBets[slot] = 0;
+        if (pointsChange != 0) {
+            firePointsChanged(oldPoints);
+        }
+    }
+    
     /**
      * Player takes a hit - draws a card from the deck.
      * 
@@ -184,7 +347,7 @@ public class BlackjackPlayer extends Player {
      */
     public void resetForNewRound() {
         hand.clear();
-        currentBet = 0;
+        clearBet();
         standing = false;
     }
     
@@ -194,7 +357,7 @@ public class BlackjackPlayer extends Player {
      * @return true if player has points > 0
      */
     public boolean hasPoints() {
-        return points > 0;
+        return getPoints() > 0;
     }
     
     /**
@@ -214,6 +377,6 @@ public class BlackjackPlayer extends Player {
      */
     @Override
     public String toString() {
-        return getName() + " - Points: " + points + ", Hand: " + hand.toString();
+        return getName() + " - Points: " + getPoints() + ", Hand: " + hand.toString();
     }
 }
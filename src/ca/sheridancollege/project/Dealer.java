@@ -32,9 +32,11 @@ public class Dealer extends BlackjackPlayer {
      * @param deck the deck to draw from
      */
     public void autoPlay(Deck deck) {
-        // Dealer hits until reaching 17 or higher
-        while (getHandValue() < DEALER_STAND_VALUE && !isBusted()) {
-            hit(deck);
+        // Dealer hits until reaching 17 or higher, drawing the whole run at once
+        if (deck != null && deck.getMode() != Deck.Mode.SHOE) {
+            deck.drawOut(getHand(), DEALER_STAND_VALUE);   // Cards come from random positions
+        } else if (deck != null) {
+            deck.moveTop(getHand(), DealerTable.runLength(DealerTable.stateOf(getHand()), deck.getCards()));
         }
         stand();
     }
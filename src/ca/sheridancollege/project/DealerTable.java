@@ -0,0 +1,227 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Precomputed tables for the dealer's fixed drawing rule.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Lookup tables for the dealer's draw-out under the stand-on-17 rule.
+ * A dealer hand is reduced to a state (its value and whether it is soft), and
+ * the table gives the next state for each rank, so drawing out is one lookup
+ * per card instead of re-scoring the hand.
+ * 
+ * The class also caches the distribution of the dealer's final total from every
+ * state, assuming an infinite deck, so simulations that do not need exact shoe
+ * fidelity can sample the dealer's result with a single random number. That cache
+ * is built on first use (lazy holder), so programs that only draw out the dealer
+ * never pay for it at startup.
+ */
+public final class DealerTable {
+    
+    // Highest hand value that can be represented (hard 21 plus a ten)
+    public static final int MAX_VALUE = 31;
+    
+    // Dealer final totals run from the stand value up to 26 (16 plus a ten)
+    public static final int MIN_FINAL = Dealer.DEALER_STAND_VALUE;
+    public static final int MAX_FINAL = 26;
+    
+    private static final int STATES = (MAX_VALUE + 1) * 2;
+    private static final int RANKS = BlackjackCard.Rank.values().length;
+    private static final int OUTCOMES = MAX_FINAL - MIN_FINAL + 1;
+    
+    // NEXT[state * RANKS + rank] is the state after drawing a card of that rank
+    private static final byte[] NEXT = new byte[STATES * RANKS];
+    
+    static {
+        for (int state = 0; state < STATES; state++) {
+            for (BlackjackCard.Rank rank : BlackjackCard.Rank.values()) {
+                NEXT[state * RANKS + rank.ordinal()] = (byte) computeNext(state, rank);
+            }
+        }
+    }
+    
+    /**
+     * Holds the final total distributions, which the JVM builds the first
+     * time sampleFinalValue() or finalDistribution() is called.
+     */
+    private static final class FinalTotals {
+        
+        // CDF[state * OUTCOMES + i] is P(final total <= MIN_FINAL + i) for an infinite deck
+        static final double[] CDF = new double[STATES * OUTCOMES];
+        
+        static {
+            double[][] distributions = new double[STATES][];
+            for (int state = 0; state < STATES; state++) {
+                double[] distribution = distribution(state, distributions);
+                double cumulative = 0;
+                for (int i = 0; i < OUTCOMES; i++) {
+                    cumulative += distribution[i];
+                    CDF[state * OUTCOMES + i] = cumulative;
+                }
+                CDF[state * OUTCOMES + OUTCOMES - 1] = 1.0;
+            }
+        }
+    }
+    
+    private DealerTable() {
+    }
+    
+    /**
+     * Builds the state for a hand value and soft flag.
+     * 
+     * @param value the hand value
+     * @param soft whether an Ace is being counted as 11
+     * @return the state
+     */
+    public static int stateOf(int value, boolean soft) {
+        return value * 2 + (soft ? 1 : 0);
+    }
+    
+    /**
+     * Builds the state for the cards currently in a hand.
+     * 
+     * @param hand the hand
+     * @return the state
+     */
+    public static int stateOf(Hand hand) {
+        return stateOf(hand.getValue(), hand.isSoft());
+    }
+    
+    /**
+     * Gets the hand value of a state.
+     * 
+     * @param state the state
+     * @return the hand value
+     */
+    public static int valueOf(int state) {
+        return state >> 1;
+    }
+    
+    /**
+     * Checks whether a state is soft.
+     * 
+     * @param state the state
+     * @return true if an Ace is being counted as 11
+     */
+    public static boolean isSoft(int state) {
+        return (state & 1) != 0;
+    }
+    
+    /**
+     * Checks whether the dealer stops drawing in this state.
+     * 
+     * @param state the state
+     * @return true if the value is at or above the dealer stand value
+     */
+    public static boolean isFinal(int state) {
+        return valueOf(state) >= Dealer.DEALER_STAND_VALUE;
+    }
+    
+    /**
+     * Gets the state after drawing a card.
+     * 
+     * @param state the current state
+     * @param rank the rank of the card drawn
+     * @return the next state
+     */
+    public static int next(int state, BlackjackCard.Rank rank) {
+        return NEXT[state * RANKS + rank.ordinal()];
+    }
+    
+    /**
+     * Counts how many cards from the front of a list the dealer would draw
+     * from the given state before standing or busting.
+     * 
+     * @param state the dealer's current state
+     * @param cards the cards in drawing order
+     * @return the number of cards the dealer draws
+     */
+    public static int runLength(int state, List<Card> cards) {
+        int count = 0;
+        while (!isFinal(state) && count < cards.size()) {
+            state = NEXT[state * RANKS + ((BlackjackCard) cards.get(count++)).getRank().ordinal()];
+        }
+        return count;
+    }
+    
+    /**
+     * Samples the dealer's final total from the cached infinite-deck distribution.
+     * Trades exact shoe fidelity for speed; the deck is not touched.
+     * 
+     * @param state the dealer's current state
+     * @param random the random number source
+     * @return the final total, from 17 to 26 (over 21 is a bust)
+     */
+    public static int sampleFinalValue(int state, Random random) {
+        if (isFinal(state)) {
+            return valueOf(state);
+        }
+        double[] cdf = FinalTotals.CDF;
+        double r = random.nextDouble();
+        int base = state * OUTCOMES;
+        int i = 0;
+        while (i < OUTCOMES - 1 && r >= cdf[base + i]) {
+            i++;
+        }
+        return MIN_FINAL + i;
+    }
+    
+    /**
+     * Gets the probability of each final total from a state, for an infinite deck.
+     * 
+     * @param state the dealer's current state
+     * @return probabilities indexed by final total minus MIN_FINAL
+     */
+    public static double[] finalDistribution(int state) {
+        double[] distribution = new double[OUTCOMES];
+        double previous = 0;
+        for (int i = 0; i < OUTCOMES; i++) {
+            double cumulative = FinalTotals.CDF[state * OUTCOMES + i];
+            distribution[i] = cumulative - previous;
+            previous = cumulative;
+        }
+        return distribution;
+    }
+    
+    /**
+     * Works out the state after drawing a card, using the same Ace handling as Hand.
+     */
+    private static int computeNext(int state, BlackjackCard.Rank rank) {
+        int value = valueOf(state) + rank.getValue();
+        int softAces = (isSoft(state) ? 1 : 0) + (rank == BlackjackCard.Rank.ACE ? 1 : 0);
+        while (value > 21 && softAces > 0) {
+            value -= 10;
+            softAces--;
+        }
+        return stateOf(Math.min(value, MAX_VALUE), softAces > 0);
+    }
+    
+    /**
+     * Works out the infinite-deck final total distribution for a state, memoized.
+     */
+    private static double[] distribution(int state, double[][] memo) {
+        if (memo[state] != null) {
+            return memo[state];
+        }
+        double[] result = new double[OUTCOMES];
+        if (isFinal(state)) {
+            // Totals past MAX_FINAL cannot come from the dealer rule; treat them as the worst bust
+            result[Math.min(valueOf(state), MAX_FINAL) - MIN_FINAL] = 1.0;
+        } else {
+            for (BlackjackCard.Rank rank : BlackjackCard.Rank.values()) {
+                double[] after = distribution(NEXT[state * RANKS + rank.ordinal()], memo);
+                for (int i = 0; i < OUTCOMES; i++) {
+                    result[i] += after[i] / RANKS;
+                }
+            }
+        }
+        memo[state] = result;
+        return result;
+    }
+}
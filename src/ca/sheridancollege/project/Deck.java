@@ -7,7 +7,8 @@
  */
 package ca.sheridancollege.project;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 /**
  * Represents a standard 52-card deck for Blackjack.
@@ -15,44 +16,317 @@ import java.util.ArrayList;
  */
 public class Deck extends GroupOfCards {
     
+    /**
+     * How cards are drawn and when they return to the deck.
+     */
+    public enum Mode {
+        /** Cards are dealt from the top of a shuffled shoe until it is reset. */
+        SHOE,
+        /**
+         * A continuous shuffling machine: discards go back into the deck every
+         * round, and every card is drawn uniformly at random from the whole deck.
+         */
+        CONTINUOUS,
+        /**
+         * An infinite deck: every card is one random draw from the 52 pooled cards,
+         * so nothing is stored, shuffled or removed. Much faster, but without card
+         * removal its results differ slightly from a real shoe.
+         */
+        INFINITE
+    }
+    
+    private final int numDecks;     // Number of 52-card decks in the shoe
+    private final Random random;    // Source of randomness for shuffling
+    private final Mode mode;
+    
     /**
      * Constructor to create a new shuffled deck of 52 cards.
      */
     public Deck() {
-        super(52);
+        this(1, new Random());
+    }
+    
+    /**
+     * Constructor to create a shuffled shoe of several decks.
+     * Passing a seeded Random makes the order of cards repeatable.
+     * 
+     * @param numDecks the number of 52-card decks in the shoe
+     * @param random the random number source used for shuffling
+     */
+    public Deck(int numDecks, Random random) {
+        this(numDecks, random, Mode.SHOE);
+    }
+    
+    /**
+     * Constructor to create a deck of several decks in the given mode.
+     * 
+     * @param numDecks the number of 52-card decks in the deck
+     * @param random the random number source used for shuffling and drawing
+     * @param mode how cards are drawn and returned
+     */
+    public Deck(int numDecks, Random random, Mode mode) {
+        super(BlackjackCard.CARDS_PER_DECK * numDecks);
+        this.numDecks = numDecks;
+        this.random = random;
+        this.mode = mode;
         reset();
     }
     
     /**
-     * Resets the deck to a full 52-card deck and shuffles it.
-     * Creates all combinations of suits and ranks.
+     * Resets the deck to a full shoe and shuffles it.
+     * Uses the pooled card instances, so no cards are allocated.
+     * An infinite deck holds no cards and always reports a full shoe.
      */
     public void reset() {
-        ArrayList<Card> cards = new ArrayList<>();
+        this.getCards().clear();
+        if (mode == Mode.INFINITE) {
+            this.setSize(numDecks * BlackjackCard.CARDS_PER_DECK);
+            return;
+        }
+        this.setSize(0);
         
-        // Create all 52 cards (4 suits × 13 ranks)
-        for (BlackjackCard.Suit suit : BlackjackCard.Suit.values()) {
-            for (BlackjackCard.Rank rank : BlackjackCard.Rank.values()) {
-                this.addCard(new BlackjackCard(suit, rank));
+        // Add all 52 cards (4 suits × 13 ranks) for each deck
+        for (int d = 0; d < numDecks; d++) {
+            for (int i = 0; i < BlackjackCard.CARDS_PER_DECK; i++) {
+                this.addCard(BlackjackCard.fromIndex(i));
             }
         }
         this.shuffle();
     }
     
-         /**
+    /**
+     * Shuffles the deck using this deck's random number source.
+     */
+    @Override
+    public void shuffle() {
+        shuffle(random);
+    }
+    
+    /**
+     * Gets the number of 52-card decks in the shoe.
+     * 
+     * @return the number of decks
+     */
+    public int getNumDecks() {
+        return numDecks;
+    }
+    
+    /**
+     * Gets how cards are drawn and returned.
+     * 
+     * @return the deck mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+    
+    /**
+     * Checks whether this deck is a continuous shuffling machine.
+     * 
+     * @return true if discards return to the deck every round
+     */
+    public boolean isContinuous() {
+        return mode == Mode.CONTINUOUS;
+    }
+    
+    /**
+     * Checks if the deck is empty. An infinite deck never is.
+     * 
+     * @return true if no cards remain in the deck
+     */
+    @Override
+    public boolean isEmpty() {
+        return mode != Mode.INFINITE && super.isEmpty();
+    }
+    
+    /**
+     * Returns the cards of a finished hand to the deck. A continuous shuffling
+     * machine takes them back straight away; a shoe keeps them out until reset().
+     * Call before the hand is cleared.
+     * 
+     * @param hand the finished hand
+     */
+    public void discard(Hand hand) {
+        if (mode != Mode.CONTINUOUS) {
+            return;
+        }
+        // Every draw picks a uniformly random card, so appending is as good
+        // as inserting at a random position
+        List<Card> discards = hand.getCards();
+        for (int i = 0; i < discards.size(); i++) {
+            this.addCard(discards.get(i));
+        }
+    }
+    
+    /**
      * Draws (removes and returns) the top card from the deck.
      * 
      * @return the top card, or null if deck is empty
      */
     public Card draw() {
+        return ProfileHooks.draw(this);
+    }
+    
+    /**
+     * Removes and returns the top card, or a random card in a continuous
+     * shuffling machine or an infinite deck.
+     * 
+     * @return the top card, or null if deck is empty
+     */
+    Card drawTop() {
+        if (mode == Mode.INFINITE) {
+            return BlackjackCard.fromIndex(random.nextInt(BlackjackCard.CARDS_PER_DECK));
+        }
         if (this.isEmpty()) {
-            System.out.println("Error: Deck is empty");
-            return null;
+            return null;        // The caller reports it, on its own output
+        }
+        this.setSize(this.getSize() - 1);
+        if (mode == Mode.CONTINUOUS) {
+            return removeRandom();
         }
-        this.increaseSize();
         return this.getCards().remove(0);
     }
     
+    /**
+     * Removes a uniformly random card in constant time by moving the last card
+     * into its place.
+     * 
+     * @return the card
+     */
+    private Card removeRandom() {
+        List<Card> cards = this.getCards();
+        int last = cards.size() - 1;
+        int index = random.nextInt(last + 1);
+        Card card = cards.get(index);
+        cards.set(index, cards.get(last));
+        cards.remove(last);
+        return card;
+    }
+    
+    /**
+     * Deals the initial two cards to every player with a bet and to the dealer.
+     * Cards go out in the usual order (one to each betting player, then the dealer,
+     * twice) but are taken off the deck in a single pass.
+     * 
+     * @param players the seated players; only those with a current bet are dealt in
+     * @param dealer the dealer, dealt last in each pass
+     */
+    public void dealInitial(List<BlackjackPlayer> players, Dealer dealer) {
+        if (mode != Mode.SHOE) {
+            for (int pass = 0; pass < 2; pass++) {
+                for (int i = 0; i < players.size(); i++) {
+                    BlackjackPlayer player = players.get(i);
+                    if (player.getCurrentBet() > 0 && !isEmpty()) {
+                        player.getHand().addCard(drawTop());
+                    }
+                }
+                if (!isEmpty()) {
+                    dealer.getHand().addCard(drawTop());
+                }
+            }
+            return;
+        }
+        
+        int seats = 1;
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).getCurrentBet() > 0) {
+                seats++;
+            }
+        }
+        
+        List<Card> cards = this.getCards();
+        int count = Math.min(2 * seats, cards.size());
+        int next = 0;
+        for (int pass = 0; pass < 2 && next < count; pass++) {
+            for (int i = 0; i < players.size() && next < count; i++) {
+                BlackjackPlayer player = players.get(i);
+                if (player.getCurrentBet() > 0) {
+                    player.getHand().addCard(cards.get(next++));
+                }
+            }
+            if (next < count) {
+                dealer.getHand().addCard(cards.get(next++));
+            }
+        }
+        removeTop(count);
+    }
+    
+    /**
+     * Draws cards into a hand until it reaches the stand value or busts.
+     * The run of cards is found by scanning the top of the deck and is then
+     * moved into the hand in one step.
+     * 
+     * @param hand the hand to draw into
+     * @param standValue the value at which drawing stops
+     * @return the number of cards drawn
+     */
+    public int drawOut(Hand hand, int standValue) {
+        if (mode != Mode.SHOE) {
+            int count = 0;
+            while (hand.getValue() < standValue && !isEmpty()) {
+                hand.addCard(drawTop());
+                count++;
+            }
+            return count;
+        }
+        
+        int value = hand.getValue();
+        int softAces = hand.isSoft() ? 1 : 0;
+        
+        List<Card> cards = this.getCards();
+        int count = 0;
+        while (value < standValue && count < cards.size()) {
+            BlackjackCard card = (BlackjackCard) cards.get(count++);
+            value += card.getValue();
+            if (card.isAce()) {
+                softAces++;
+            }
+            while (value > 21 && softAces > 0) {
+                value -= 10;
+                softAces--;
+            }
+        }
+        
+        moveTop(hand, count);
+        return count;
+    }
+    
+    /**
+     * Moves the given number of cards from the top of the deck into a hand.
+     * 
+     * @param hand the hand to receive the cards
+     * @param count the number of cards to move
+     */
+    void moveTop(Hand hand, int count) {
+        if (mode != Mode.SHOE) {
+            for (int i = 0; i < count && !isEmpty(); i++) {
+                hand.addCard(drawTop());
+            }
+        } else if (count > 0) {
+            hand.addCards(this.getCards(), count);
+            removeTop(count);
+        }
+    }
+    
+    /**
+     * Removes the given number of cards from the top of the deck. The rest are
+     * moved up by index and the tail trimmed, as subList(0, count).clear() would,
+     * but without allocating a sublist view.
+     * 
+     * @param count the number of cards to remove
+     */
+    private void removeTop(int count) {
+        List<Card> cards = this.getCards();
+        int remaining = cards.size() - count;
+        for (int i = 0; i < remaining; i++) {
+            cards.set(i, cards.get(i + count));
+        }
+        for (int i = cards.size() - 1; i >= remaining; i--) {
+            cards.remove(i);
+        }
+        this.setSize(this.getSize() - count);
+    }
+    
     /**
      * Returns a string representation of the deck.
      * 
@@ -60,6 +334,9 @@ public class Deck extends GroupOfCards {
      */
     @Override
     public String toString() {
+        if (mode == Mode.INFINITE) {
+            return "Deck: infinite";
+        }
         return "Deck: " + this.getSize() + " cards remaining";
     }
 }
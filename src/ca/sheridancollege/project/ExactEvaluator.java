@@ -0,0 +1,385 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Computes the exact expected return of a round by enumerating every deal.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Works out the exact expected return per unit bet of one seat playing a Strategy
+ * for one round from a given shoe composition, with no sampling noise. Every
+ * sequence of cards is weighted by its probability of being dealt from that
+ * shoe, and each is played and settled by the same rules as TableSimulator:
+ * the deal order of Deck.dealInitial(), the Blackjack check before anyone plays,
+ * the dealer standing at Dealer.DEALER_STAND_VALUE (DealerTable states) and
+ * payouts from RoundResult.
+ * 
+ * Only card values matter, so a shoe is ten counts (Ace, 2 to 9, ten-valued)
+ * packed into one long, and the work is memoized on those counts:
+ * <ul>
+ *   <li>the dealer's final total distribution per (remaining shoe, dealer state);</li>
+ *   <li>the dealer's distribution from the up card, including the chance the
+ *       hole card makes a Blackjack, per (remaining shoe, up card);</li>
+ *   <li>the player's expected return per (remaining shoe, hand state, up card).</li>
+ * </ul>
+ * The strategy is consulted with a real Hand, but its answers are memoized by
+ * hand value and softness, so it must decide on those and the up card only
+ * (as PolicyStrategy does).
+ * 
+ * The hole card is dealt before the player draws, but since the strategy never
+ * sees it, the same sequences can be weighted with the hole card drawn after the
+ * player's cards; that lets the player's states be shared across hole cards. A
+ * dealer Blackjack ends the round before the player draws, but it loses -1
+ * exactly like a bust, so the reordering does not change any payout.
+ * 
+ * The deals are split into fork/join tasks by first card, up card and second card,
+ * all sharing the memo tables.
+ */
+public class ExactEvaluator {
+    
+    private static final int CLASSES = 10;      // Ace, 2 to 9, ten-valued
+    private static final int TENS = 9;
+    private static final int STATES = (DealerTable.MAX_VALUE + 1) * 2;
+    private static final int OUTCOMES = DealerTable.MAX_FINAL - DealerTable.MIN_FINAL + 1;
+    private static final int DEALER_BLACKJACK = OUTCOMES;   // Extra slot in up-card distributions
+    private static final int SOFT_ZERO = DealerTable.stateOf(0, false);
+    
+    // Counts are packed 6 bits per class, 8 bits for the ten-valued class
+    private static final int[] SHIFTS = {0, 6, 12, 18, 24, 30, 36, 42, 48, 54};
+    private static final long[] MASKS = {63, 63, 63, 63, 63, 63, 63, 63, 63, 255};
+    
+    // A card of each class, and its rank for DealerTable
+    private static final BlackjackCard[] CARDS = new BlackjackCard[CLASSES];
+    private static final BlackjackCard.Rank[] RANKS = new BlackjackCard.Rank[CLASSES];
+    
+    static {
+        for (int c = 0; c < CLASSES; c++) {
+            RANKS[c] = BlackjackCard.Rank.values()[c];
+            CARDS[c] = BlackjackCard.fromIndex(RANKS[c].ordinal());
+        }
+    }
+    
+    private final long shoe;
+    private final int shoeSize;
+    private final Strategy strategy;
+    private final double[][] standPayout;       // [player value][dealer final - MIN_FINAL]
+    private final double bustPayout;
+    private final double blackjackPayout;
+    private final double blackjackPushPayout;
+    private final double dealerBlackjackPayout;
+    private final double[][] finalPoints;       // Distribution of a dealer who already stands
+    
+    private final List<ConcurrentHashMap<Long, double[]>> dealerMemo;      // By dealer state
+    private final List<ConcurrentHashMap<Long, double[]>> upCardMemo;      // By up-card class
+    private final List<ConcurrentHashMap<Long, Double>> playerMemo;        // By up-card class * STATES + hand state
+    
+    /**
+     * Constructor to create an evaluator for a shoe.
+     * 
+     * @param rankCounts the number of cards of each rank left in the shoe, by Rank ordinal
+     * @param strategy the player's strategy (only its hit or stand decisions are used)
+     * @param bet the bet, used with RoundResult.pointsChange() so payouts round as at the table
+     */
+    public ExactEvaluator(int[] rankCounts, Strategy strategy, int bet) {
+        if (rankCounts.length != BlackjackCard.Rank.values().length) {
+            throw new IllegalArgumentException("Need a count for each of the 13 ranks");
+        }
+        long packed = 0;
+        int size = 0;
+        for (int r = 0; r < rankCounts.length; r++) {
+            int c = Math.min(r, TENS);
+            long count = ((packed >>> SHIFTS[c]) & MASKS[c]) + rankCounts[r];
+            if (rankCounts[r] < 0 || count > MASKS[c]) {
+                throw new IllegalArgumentException("Too many cards of rank " + BlackjackCard.Rank.values()[r]);
+            }
+            packed = (packed & ~(MASKS[c] << SHIFTS[c])) | (count << SHIFTS[c]);
+            size += rankCounts[r];
+        }
+        this.shoe = packed;
+        this.shoeSize = size;
+        this.strategy = strategy;
+        
+        this.standPayout = new double[22][OUTCOMES];
+        for (int value = 0; value <= 21; value++) {
+            for (int i = 0; i < OUTCOMES; i++) {
+                standPayout[value][i] = payout(RoundResult.resolve(value, false, DealerTable.MIN_FINAL + i, false), bet);
+            }
+        }
+        // A busted player loses before the dealer draws, whatever the dealer's two cards
+        this.bustPayout = payout(RoundResult.LOSE_BUSTED, bet);
+        this.blackjackPayout = payout(RoundResult.resolve(21, true, DealerTable.MIN_FINAL, false), bet);
+        this.blackjackPushPayout = payout(RoundResult.resolve(21, true, 21, true), bet);
+        this.dealerBlackjackPayout = payout(RoundResult.resolve(21, false, 21, true), bet);
+        this.finalPoints = new double[DealerTable.MAX_VALUE + 1][];
+        for (int value = DealerTable.MIN_FINAL; value <= DealerTable.MAX_VALUE; value++) {
+            finalPoints[value] = new double[OUTCOMES];
+            finalPoints[value][Math.min(value, DealerTable.MAX_FINAL) - DealerTable.MIN_FINAL] = 1.0;
+        }
+        
+        this.dealerMemo = new ArrayList<>(STATES);
+        for (int i = 0; i < STATES; i++) {
+            dealerMemo.add(new ConcurrentHashMap<>());
+        }
+        this.upCardMemo = new ArrayList<>(CLASSES);
+        for (int i = 0; i < CLASSES; i++) {
+            upCardMemo.add(new ConcurrentHashMap<>());
+        }
+        this.playerMemo = new ArrayList<>(CLASSES * STATES);
+        for (int i = 0; i < CLASSES * STATES; i++) {
+            playerMemo.add(new ConcurrentHashMap<>());
+        }
+    }
+    
+    /**
+     * Creates an evaluator for a full shoe.
+     * 
+     * @param decks the number of decks (1 to 8)
+     * @param strategy the player's strategy
+     * @param bet the bet
+     * @return the evaluator
+     */
+    public static ExactEvaluator fullShoe(int decks, Strategy strategy, int bet) {
+        int[] counts = new int[BlackjackCard.Rank.values().length];
+        for (int r = 0; r < counts.length; r++) {
+            counts[r] = 4 * decks;
+        }
+        return new ExactEvaluator(counts, strategy, bet);
+    }
+    
+    /**
+     * Computes the expected points change per unit bet over every possible round.
+     * 
+     * @return the expected return (negative when the house has the edge)
+     */
+    public double expectedReturn() {
+        return ForkJoinPool.commonPool().invoke(new DealTask(shoe, shoeSize, 0, -1, -1, -1));
+    }
+    
+    /**
+     * Gets the number of memoized states, to gauge how much work was shared.
+     * 
+     * @return the number of cached results
+     */
+    public long getMemoSize() {
+        long total = 0;
+        for (int i = 0; i < dealerMemo.size(); i++) {
+            total += dealerMemo.get(i).size();
+        }
+        for (int i = 0; i < upCardMemo.size(); i++) {
+            total += upCardMemo.get(i).size();
+        }
+        for (int i = 0; i < playerMemo.size(); i++) {
+            total += playerMemo.get(i).size();
+        }
+        return total;
+    }
+    
+    /**
+     * Deals one of the first three cards (player, dealer up card, player) in
+     * every possible way, forking a task per card, and evaluates the round once
+     * all three are out.
+     */
+    private final class DealTask extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+        
+        private final long remaining;
+        private final int cards;
+        private final int dealt;          // Cards dealt so far, 0 to 3
+        private final int first;          // Class of the player's first card
+        private final int up;             // Class of the dealer's up card
+        private final int second;         // Class of the player's second card
+        
+        DealTask(long remaining, int cards, int dealt, int first, int up, int second) {
+            this.remaining = remaining;
+            this.cards = cards;
+            this.dealt = dealt;
+            this.first = first;
+            this.up = up;
+            this.second = second;
+        }
+        
+        @Override
+        protected Double compute() {
+            if (dealt == 3) {
+                return evaluateDeal(remaining, cards, first, up, second);
+            }
+            List<DealTask> tasks = new ArrayList<>(CLASSES);
+            double[] weights = new double[CLASSES];
+            for (int c = 0; c < CLASSES; c++) {
+                long n = count(remaining, c);
+                if (n == 0) {
+                    continue;
+                }
+                weights[tasks.size()] = n / (double) cards;
+                tasks.add(new DealTask(remaining - (1L << SHIFTS[c]), cards - 1, dealt + 1,
+                                       dealt == 0 ? c : first, dealt == 1 ? c : up, dealt == 2 ? c : -1));
+            }
+            invokeAll(tasks);
+            double ev = 0;
+            for (int i = 0; i < tasks.size(); i++) {
+                ev += weights[i] * tasks.get(i).join();
+            }
+            return ev;
+        }
+    }
+    
+    /**
+     * Evaluates a round once the player's two cards and the up card are out.
+     */
+    private double evaluateDeal(long remaining, int cards, int first, int up, int second) {
+        Hand hand = new Hand();
+        hand.addCard(CARDS[first]);
+        hand.addCard(CARDS[second]);
+        if (hand.isBlackjack()) {
+            double dealerBlackjack = upCardDistribution(remaining, cards, up)[DEALER_BLACKJACK];
+            return dealerBlackjack * blackjackPushPayout + (1 - dealerBlackjack) * blackjackPayout;
+        }
+        return playerReturn(remaining, cards, hand, up);
+    }
+    
+    /**
+     * Gets the expected return of a live hand, choosing hit or stand by the strategy.
+     */
+    private double playerReturn(long remaining, int cards, Hand hand, int up) {
+        int state = DealerTable.stateOf(hand);
+        ConcurrentHashMap<Long, Double> memo = playerMemo.get(up * STATES + state);
+        Double cached = memo.get(remaining);
+        if (cached != null) {
+            return cached;
+        }
+        double ev;
+        if (strategy.shouldHit(hand, CARDS[up].getValue())) {
+            ev = 0;
+            for (int c = 0; c < CLASSES; c++) {
+                long n = count(remaining, c);
+                if (n == 0) {
+                    continue;
+                }
+                hand.addCard(CARDS[c]);
+                double after = hand.isBusted() ? bustPayout
+                        : playerReturn(remaining - (1L << SHIFTS[c]), cards - 1, hand, up);
+                hand.removeLastCard();
+                ev += n / (double) cards * after;
+            }
+        } else {
+            double[] dealer = upCardDistribution(remaining, cards, up);
+            double[] payout = standPayout[hand.getValue()];
+            ev = dealer[DEALER_BLACKJACK] * dealerBlackjackPayout;
+            for (int i = 0; i < OUTCOMES; i++) {
+                ev += dealer[i] * payout[i];
+            }
+        }
+        memo.putIfAbsent(remaining, ev);
+        return ev;
+    }
+    
+    /**
+     * Gets the dealer's final total distribution from the up card alone, with
+     * the hole card drawn from the remaining shoe; a Blackjack gets its own slot.
+     */
+    private double[] upCardDistribution(long remaining, int cards, int up) {
+        double[] cached = upCardMemo.get(up).get(remaining);
+        if (cached != null) {
+            return cached;
+        }
+        double[] result = new double[OUTCOMES + 1];
+        int upState = DealerTable.next(SOFT_ZERO, RANKS[up]);
+        for (int c = 0; c < CLASSES; c++) {
+            long n = count(remaining, c);
+            if (n == 0) {
+                continue;
+            }
+            double p = n / (double) cards;
+            int state = DealerTable.next(upState, RANKS[c]);
+            if (DealerTable.valueOf(state) == 21) {
+                result[DEALER_BLACKJACK] += p;
+            } else {
+                double[] after = dealerDistribution(remaining - (1L << SHIFTS[c]), cards - 1, state);
+                for (int i = 0; i < OUTCOMES; i++) {
+                    result[i] += p * after[i];
+                }
+            }
+        }
+        upCardMemo.get(up).putIfAbsent(remaining, result);
+        return result;
+    }
+    
+    /**
+     * Gets the dealer's final total distribution from a state, drawing from the remaining shoe.
+     */
+    private double[] dealerDistribution(long remaining, int cards, int state) {
+        if (DealerTable.isFinal(state)) {
+            return finalPoints[DealerTable.valueOf(state)];
+        }
+        double[] cached = dealerMemo.get(state).get(remaining);
+        if (cached != null) {
+            return cached;
+        }
+        double[] result = new double[OUTCOMES];
+        for (int c = 0; c < CLASSES; c++) {
+            long n = count(remaining, c);
+            if (n == 0) {
+                continue;
+            }
+            double p = n / (double) cards;
+            double[] after = dealerDistribution(remaining - (1L << SHIFTS[c]), cards - 1,
+                                                DealerTable.next(state, RANKS[c]));
+            for (int i = 0; i < OUTCOMES; i++) {
+                result[i] += p * after[i];
+            }
+        }
+        dealerMemo.get(state).putIfAbsent(remaining, result);
+        return result;
+    }
+    
+    private static long count(long shoe, int c) {
+        return (shoe >>> SHIFTS[c]) & MASKS[c];
+    }
+    
+    private static double payout(RoundResult result, int bet) {
+        return result.pointsChange(bet) / (double) bet;
+    }
+    
+    /**
+     * Computes the exact return of basic strategy and checks it against a
+     * simulation of the same round.
+     * 
+     * @param args optional: decks, bet, simulated rounds
+     */
+    public static void main(String[] args) {
+        int decks = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int bet = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long rounds = args.length > 2 ? Long.parseLong(args[2]) : 20_000_000L;
+        
+        ExactEvaluator evaluator = fullShoe(decks, PolicyStrategy.basic(bet), bet);
+        long start = System.nanoTime();
+        double exact = evaluator.expectedReturn();
+        System.out.printf("Exact return, %d deck%s, basic strategy: %+.6f%% (%.2f s, %,d memoized states)%n",
+                decks, decks == 1 ? "" : "s", 100 * exact, (System.nanoTime() - start) / 1e9,
+                evaluator.getMemoSize());
+        
+        // A continuous shuffling machine with one seat starts every round from the full shoe
+        TableSimulator table = new TableSimulator(decks, 17796L, Deck.Mode.CONTINUOUS);
+        table.addPlayer(new BlackjackPlayer("Basic", Integer.MAX_VALUE / 2), PolicyStrategy.basic(bet));
+        double sum = 0;
+        double sumSquares = 0;
+        for (long n = 0; n < rounds; n++) {
+            table.playRound();
+            double change = table.getLastPointsChange(0) / (double) bet;
+            sum += change;
+            sumSquares += change * change;
+        }
+        double mean = sum / rounds;
+        double error = Math.sqrt((sumSquares / rounds - mean * mean) / rounds);
+        System.out.printf("Simulated return over %,d rounds: %+.4f%% +/- %.4f%% (z = %+.2f)%n",
+                rounds, 100 * mean, 100 * error, (mean - exact) / error);
+    }
+}
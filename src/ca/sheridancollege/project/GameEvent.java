@@ -0,0 +1,166 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * A change in game state, published by BlackjackGame.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+/**
+ * An immutable record of something that happened at the table. Which fields
+ * are set depends on the type; the others are null or 0.
+ */
+public class GameEvent {
+    
+    /**
+     * The kinds of event a game publishes.
+     */
+    public enum Type {
+        ROUND_START,        // round
+        RESHUFFLE,          // round, amount = cards in the new shoe
+        CARD_DEALT,         // round, name, card (null for the dealer's hole card)
+        PLAYER_ACTION,      // round, name, action, amount = bet for BET
+        DEALER_REVEAL,      // round, name, handValue, text = the full hand
+        SETTLEMENT,         // round, name, result, amount = points change, handValue = points after
+        SIDE_BET_SETTLEMENT // round, name, text = side bet and outcome, amount = points change
+    }
+    
+    /**
+     * The decisions a player can make.
+     */
+    public enum Action {
+        BET, HIT, STAND, QUIT
+    }
+    
+    private final Type type;
+    private final int round;
+    private final String name;
+    private final Card card;
+    private final Action action;
+    private final RoundResult result;
+    private final int amount;
+    private final int handValue;
+    private final String text;
+    
+    private GameEvent(Type type, int round, String name, Card card, Action action,
+                      RoundResult result, int amount, int handValue, String text) {
+        this.type = type;
+        this.round = round;
+        this.name = name;
+        this.card = card;
+        this.action = action;
+        this.result = result;
+        this.amount = amount;
+        this.handValue = handValue;
+        this.text = text;
+    }
+    
+    public static GameEvent roundStart(int round) {
+        return new GameEvent(Type.ROUND_START, round, null, null, null, null, 0, 0, null);
+    }
+    
+    public static GameEvent reshuffle(int round, int cards) {
+        return new GameEvent(Type.RESHUFFLE, round, null, null, null, null, cards, 0, null);
+    }
+    
+    public static GameEvent cardDealt(int round, String name, Card card) {
+        return new GameEvent(Type.CARD_DEALT, round, name, card, null, null, 0, 0, null);
+    }
+    
+    public static GameEvent playerAction(int round, String name, Action action, int amount) {
+        return new GameEvent(Type.PLAYER_ACTION, round, name, null, action, null, amount, 0, null);
+    }
+    
+    public static GameEvent dealerReveal(int round, Dealer dealer) {
+        return new GameEvent(Type.DEALER_REVEAL, round, dealer.getName(), null, null, null, 0,
+                             dealer.getHandValue(), dealer.getFullHandString());
+    }
+    
+    public static GameEvent settlement(int round, String name, RoundResult result, int pointsChange, int points) {
+        return new GameEvent(Type.SETTLEMENT, round, name, null, null, result, pointsChange, points, null);
+    }
+    
+    public static GameEvent sideBetSettlement(int round, String name, SideBet sideBet,
+                                              SideBet.Outcome outcome, int pointsChange) {
+        return new GameEvent(Type.SIDE_BET_SETTLEMENT, round, name, null, null, null, pointsChange, 0,
+                             sideBet.getLabel() + ": " + outcome.getLabel());
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public int getRound() {
+        return round;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Card getCard() {
+        return card;
+    }
+    
+    public Action getAction() {
+        return action;
+    }
+    
+    public RoundResult getResult() {
+        return result;
+    }
+    
+    public int getAmount() {
+        return amount;
+    }
+    
+    public int getHandValue() {
+        return handValue;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    /**
+     * Returns a one-line description of the event, for logs.
+     * 
+     * @return the description
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Round ").append(round).append(' ').append(type);
+        if (name != null) {
+            sb.append(' ').append(name);
+        }
+        switch (type) {
+            case RESHUFFLE:
+                sb.append(" (").append(amount).append(" cards)");
+                break;
+            case CARD_DEALT:
+                sb.append(' ').append(card == null ? "[??]" : card.toString());
+                break;
+            case PLAYER_ACTION:
+                sb.append(' ').append(action);
+                if (action == Action.BET) {
+                    sb.append(' ').append(amount);
+                }
+                break;
+            case DEALER_REVEAL:
+                sb.append(' ').append(text);
+                break;
+            case SETTLEMENT:
+                sb.append(' ').append(result.getLabel()).append(' ').append(amount)
+                  .append(" -> ").append(handValue);
+                break;
+            case SIDE_BET_SETTLEMENT:
+                sb.append(' ').append(text).append(' ').append(amount);
+                break;
+            default:
+                break;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,326 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Publishes game events to subscribers with bounded buffers and backpressure.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A publisher of GameEvents with the same contract as java.util.concurrent.Flow
+ * (Reactive Streams): a subscriber is handed a Subscription, requests events
+ * with request(n) and receives at most that many through onNext, in order.
+ * The project targets Java 8, which has no Flow, so the interfaces are nested
+ * here with the same method names; an adapter to Flow is a one-line lambda.
+ * 
+ * Every subscriber gets its own bounded buffer and is called from a pool thread,
+ * never from the game loop, so a slow logger or UI only delays the game once its
+ * own buffer is full. At that point submit() waits for space (backpressure)
+ * rather than dropping events, so no subscriber ever loses or reorders events.
+ * close() waits until every subscriber has been delivered its events and
+ * onComplete, so nothing is lost when the game ends and the JVM exits, even
+ * though the common pool's threads are daemons.
+ */
+public class GameEventPublisher {
+    
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+    
+    /**
+     * Receives events from a publisher. Same contract as Flow.Subscriber.
+     * 
+     * @param <T> the event type
+     */
+    public interface Subscriber<T> {
+        void onSubscribe(Subscription subscription);
+        
+        void onNext(T item);
+        
+        void onError(Throwable throwable);
+        
+        void onComplete();
+    }
+    
+    /**
+     * Links one subscriber to the publisher. Same contract as Flow.Subscription.
+     */
+    public interface Subscription {
+        void request(long n);
+        
+        void cancel();
+    }
+    
+    /**
+     * A subscriber that writes every event to a stream, one line each.
+     */
+    public static class EventLog implements Subscriber<GameEvent> {
+        private final PrintStream out;
+        
+        public EventLog(PrintStream out) {
+            this.out = out;
+        }
+        
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+        
+        @Override
+        public void onNext(GameEvent event) {
+            out.println("[event] " + event);
+        }
+        
+        @Override
+        public void onError(Throwable throwable) {
+            out.println("[event] Error: " + throwable.getMessage());
+        }
+        
+        @Override
+        public void onComplete() {
+            out.println("[event] Game over");
+        }
+    }
+    
+    private final CopyOnWriteArrayList<BufferedSubscription> subscriptions;
+    private final Executor executor;
+    private volatile boolean closed;
+    
+    /**
+     * Constructor to create a publisher that delivers on the common pool.
+     */
+    public GameEventPublisher() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Constructor to create a publisher that delivers on the given executor.
+     * 
+     * @param executor runs the delivery to each subscriber
+     */
+    public GameEventPublisher(Executor executor) {
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.executor = executor;
+    }
+    
+    /**
+     * Adds a subscriber with the default buffer size.
+     * 
+     * @param subscriber the subscriber
+     */
+    public void subscribe(Subscriber<? super GameEvent> subscriber) {
+        subscribe(subscriber, DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Adds a subscriber. It is sent onSubscribe straight away and receives the
+     * events submitted from then on, as it requests them.
+     * 
+     * @param subscriber the subscriber
+     * @param bufferSize the most events held for it before submit() waits
+     */
+    public void subscribe(Subscriber<? super GameEvent> subscriber, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1");
+        }
+        BufferedSubscription subscription = new BufferedSubscription(subscriber, bufferSize);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+    }
+    
+    /**
+     * Checks whether anyone is listening, so callers can skip building events.
+     * 
+     * @return true if there is at least one subscriber
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+    
+    /**
+     * Sends an event to every subscriber, waiting while any subscriber's buffer is full.
+     * 
+     * @param event the event
+     */
+    public void submit(GameEvent event) {
+        if (closed) {
+            throw new IllegalStateException("Publisher is closed");
+        }
+        for (BufferedSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+    
+    /**
+     * Completes every subscriber once it has received the events already
+     * submitted, and waits until each has been sent onComplete (or onError, or
+     * has cancelled). A subscriber that stops requesting events holds this up
+     * until it cancels, so use close(timeout, unit) when subscribers are not trusted.
+     * Must not be called from a subscriber.
+     */
+    public void close() {
+        try {
+            close(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Completes every subscriber and waits a limited time for their delivery to finish.
+     * 
+     * @param timeout the most time to wait
+     * @param unit the unit of the timeout
+     * @return true if every subscriber finished in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean close(long timeout, TimeUnit unit) throws InterruptedException {
+        closed = true;
+        Object[] pending = subscriptions.toArray();
+        for (int i = 0; i < pending.length; i++) {
+            ((BufferedSubscription) pending[i]).complete();
+        }
+        long deadline = System.nanoTime() + Math.min(unit.toNanos(timeout), Long.MAX_VALUE / 2);
+        for (int i = 0; i < pending.length; i++) {
+            long left = deadline - System.nanoTime();
+            if (!((BufferedSubscription) pending[i]).terminated.await(left, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * One subscriber's buffer and demand. At most one pool thread drains it at
+     * a time (tracked by the work-in-progress counter), which keeps calls to the
+     * subscriber sequential and in submission order.
+     */
+    private final class BufferedSubscription implements Subscription, Runnable {
+        private final Subscriber<? super GameEvent> subscriber;
+        private final ArrayBlockingQueue<GameEvent> buffer;
+        private final AtomicLong demand;
+        private final AtomicInteger workInProgress;
+        private final CountDownLatch terminated;     // Released after the last call to the subscriber
+        private volatile boolean completed;
+        private volatile boolean cancelled;
+        private volatile Throwable error;     // Set by an invalid request()
+        
+        BufferedSubscription(Subscriber<? super GameEvent> subscriber, int bufferSize) {
+            this.subscriber = subscriber;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.demand = new AtomicLong();
+            this.workInProgress = new AtomicInteger();
+            this.terminated = new CountDownLatch(1);
+        }
+        
+        void offer(GameEvent event) {
+            if (cancelled) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                signal();       // Make sure the subscriber is being drained, then wait for room
+                try {
+                    buffer.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            signal();
+        }
+        
+        void complete() {
+            completed = true;
+            signal();
+        }
+        
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Non-positive request: " + n);
+            } else {
+                long current;
+                do {
+                    current = demand.get();
+                } while (!demand.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+            }
+            signal();
+        }
+        
+        @Override
+        public void cancel() {
+            drop();
+            terminated.countDown();
+        }
+        
+        private void drop() {
+            cancelled = true;
+            subscriptions.remove(this);
+            buffer.clear();         // Also frees a producer waiting for room
+        }
+        
+        private void signal() {
+            if (workInProgress.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+        
+        /**
+         * Delivers buffered events while there is demand, then completion.
+         */
+        @Override
+        public void run() {
+            int missed = 1;
+            while (true) {
+                if (cancelled) {
+                    buffer.clear();
+                } else if (error != null) {
+                    drop();
+                    try {
+                        subscriber.onError(error);
+                    } finally {
+                        terminated.countDown();
+                    }
+                } else {
+                    try {
+                        GameEvent event;
+                        while (demand.get() > 0 && (event = buffer.poll()) != null) {
+                            demand.decrementAndGet();
+                            subscriber.onNext(event);
+                        }
+                        if (completed && buffer.isEmpty() && !cancelled) {
+                            cancelled = true;
+                            subscriptions.remove(this);
+                            subscriber.onComplete();
+                            terminated.countDown();
+                        }
+                    } catch (RuntimeException e) {
+                        // A failing subscriber is dropped so it cannot stall the game
+                        drop();
+                        try {
+                            subscriber.onError(e);
+                        } finally {
+                            terminated.countDown();
+                        }
+                    }
+                }
+                missed = workInProgress.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ package ca.sheridancollege.project;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Random;
 
 /**
  * A concrete class that represents any grouping of cards for a Game. HINT, you might want to subclass this more than
@@ -68,6 +69,15 @@ public class GroupOfCards {
     public void shuffle() {
         Collections.shuffle(cards);
     }
+    
+    /**
+     * Shuffles the group using the given random number source.
+     * 
+     * @param random the random number source
+     */
+    public void shuffle(Random random) {
+        Collections.shuffle(cards, random);
+    }
 
     /**
      * Checks if the deck is empty.
@@ -75,7 +85,7 @@ public class GroupOfCards {
      * @return true if no cards remain in the deck
      */
     public boolean isEmpty() {
-        return getCards() == null;
+        return cards == null || cards.isEmpty();
     }
     
      /**
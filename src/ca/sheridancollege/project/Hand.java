@@ -8,6 +8,7 @@
 package ca.sheridancollege.project;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents a player's hand in Blackjack.
@@ -15,6 +16,11 @@ import java.util.ArrayList;
  */
 public class Hand extends GroupOfCards {
     
+    // Cached renderings and value, rebuilt only after the cards change
+    private String cachedString;
+    private String cachedHiddenString;
+    private int cachedValue = -1;
+    
     /**
      * Constructor to create an empty hand.
      */
@@ -29,6 +35,64 @@ public class Hand extends GroupOfCards {
     public void clear() {
         this.getCards().clear();
         this.setSize(0);
+        invalidate();
+    }
+    
+    /**
+     * Adds a card to this hand and discards any cached rendering.
+     * 
+     * @param card the card to add
+     */
+    @Override
+    public void addCard(Card card) {
+        super.addCard(card);
+        invalidate();
+    }
+    
+    /**
+     * Appends a run of dealt cards straight into this hand's storage.
+     * Used by Deck for bulk dealing, which removes the cards from the deck afterwards.
+     * Copied by index rather than with addAll, which would allocate an array.
+     * 
+     * @param source the cards to take the run from, in dealing order
+     * @param count the number of cards at the start of source to append
+     */
+    void addCards(List<Card> source, int count) {
+        List<Card> cards = this.getCards();
+        for (int i = 0; i < count; i++) {
+            cards.add(source.get(i));
+        }
+        this.setSize(cards.size());
+        invalidate();
+    }
+    
+    /**
+     * Takes back the last card added. Used to enumerate hands card by card.
+     */
+    void removeLastCard() {
+        this.getCards().remove(this.getCards().size() - 1);
+        this.setSize(this.getSize() - 1);
+        invalidate();
+    }
+    
+    /**
+     * Replaces the cards in this hand and discards any cached rendering.
+     * 
+     * @param cards the ArrayList of cards to set
+     */
+    @Override
+    public void setCards(ArrayList<Card> cards) {
+        super.setCards(cards);
+        invalidate();
+    }
+    
+    /**
+     * Discards the cached value and strings after the cards change.
+     */
+    private void invalidate() {
+        cachedString = null;
+        cachedHiddenString = null;
+        cachedValue = -1;
     }
     
     /**
@@ -39,11 +103,24 @@ public class Hand extends GroupOfCards {
      * @return the total value of the hand
      */
     public int getValue() {
+        if (cachedValue >= 0) {
+            return cachedValue;
+        }
+        return ProfileHooks.value(this);
+    }
+    
+    /**
+     * Scores the hand and caches the result.
+     * 
+     * @return the total value of the hand
+     */
+    int computeValue() {
         int value = 0;
         int aceCount = 0;
         
-        for (Card card : this.getCards()) {
-            BlackjackCard bjCard = (BlackjackCard) card;
+        ArrayList<Card> cards = this.getCards();
+        for (int i = 0; i < cards.size(); i++) {
+            BlackjackCard bjCard = (BlackjackCard) cards.get(i);
             value += bjCard.getValue();
             if (bjCard.isAce()) {
                 aceCount++;
@@ -56,9 +133,27 @@ public class Hand extends GroupOfCards {
             aceCount--;
         }
         
+        cachedValue = value;
         return value;
     }
     
+    /**
+     * Checks if this hand is soft (an Ace is still being counted as 11).
+     * 
+     * @return true if the hand value counts an Ace as 11
+     */
+    public boolean isSoft() {
+        int hardValue = 0;
+        boolean hasAce = false;
+        ArrayList<Card> cards = this.getCards();
+        for (int i = 0; i < cards.size(); i++) {
+            BlackjackCard bjCard = (BlackjackCard) cards.get(i);
+            hardValue += bjCard.isAce() ? 1 : bjCard.getValue();
+            hasAce |= bjCard.isAce();
+        }
+        return hasAce && hardValue + 10 <= 21;
+    }
+    
     /**
      * Checks if this hand is busted (over 21).
      * 
@@ -96,16 +191,20 @@ public class Hand extends GroupOfCards {
         if (this.isEmpty()) {
             return "[Empty Hand]";
         }
+        if (cachedString != null) {
+            return cachedString;
+        }
         
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < getCards().size(); i++) {
             if (i > 0) {
                 sb.append(" ");
             }
-            sb.append("[").append(getCards().get(i).toString()).append("]");
+            sb.append("[").append(symbolOf(getCards().get(i))).append("]");
         }
         sb.append(" (Value: ").append(getValue()).append(")");
-        return sb.toString();
+        cachedString = sb.toString();
+        return cachedString;
     }
     
     /**
@@ -117,10 +216,22 @@ public class Hand extends GroupOfCards {
         if (getCards().size() < 2) {
             return toString();
         }
-        
-        StringBuilder sb = new StringBuilder();
-        sb.append("[").append(getCards().get(0).toString()).append("] [??]");
-        sb.append(" (Value: ??)");
-        return sb.toString();
+        if (cachedHiddenString == null) {
+            cachedHiddenString = "[" + symbolOf(getCards().get(0)) + "] [??] (Value: ??)";
+        }
+        return cachedHiddenString;
+    }
+    
+    /**
+     * Gets the display symbol of a card, using the precomputed table for Blackjack cards.
+     * 
+     * @param card the card to render
+     * @return the card's display symbol
+     */
+    private static String symbolOf(Card card) {
+        if (card instanceof BlackjackCard) {
+            return BlackjackCard.symbolOf(((BlackjackCard) card).getIndex());
+        }
+        return card.toString();
     }
 }
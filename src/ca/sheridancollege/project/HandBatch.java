@@ -0,0 +1,213 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Evaluates many hands at once for lockstep simulations.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Holds the cards of many independent hands in struct-of-arrays form (hard total,
+ * Ace count and card count per hand) and scores all of them in one pass.
+ * 
+ * The evaluation loop is straight-line int arithmetic over parallel arrays with
+ * no branches, which the JIT compiles to SIMD instructions, so a batch of 1024
+ * tables is scored in a few vector operations per field.
+ * 
+ * Results match Hand: Aces count as 11 unless that would bust the hand.
+ */
+public class HandBatch {
+    
+    private final int size;
+    private final int[] hardTotals;     // Total with every Ace counted as 1
+    private final int[] aceCounts;
+    private final int[] cardCounts;
+    
+    // Results of the last evaluate(); flags are 1 or 0
+    private final int[] totals;
+    private final int[] soft;
+    private final int[] busted;
+    private final int[] blackjack;
+    
+    /**
+     * Constructor to create a batch of empty hands.
+     * 
+     * @param size the number of hands
+     */
+    public HandBatch(int size) {
+        this.size = size;
+        this.hardTotals = new int[size];
+        this.aceCounts = new int[size];
+        this.cardCounts = new int[size];
+        this.totals = new int[size];
+        this.soft = new int[size];
+        this.busted = new int[size];
+        this.blackjack = new int[size];
+    }
+    
+    /**
+     * Empties every hand in the batch.
+     */
+    public void clear() {
+        Arrays.fill(hardTotals, 0);
+        Arrays.fill(aceCounts, 0);
+        Arrays.fill(cardCounts, 0);
+    }
+    
+    /**
+     * Adds a card to one hand.
+     * 
+     * @param hand the hand index
+     * @param card the card to add
+     */
+    public void addCard(int hand, BlackjackCard card) {
+        boolean ace = card.isAce();
+        hardTotals[hand] += ace ? 1 : card.getValue();
+        aceCounts[hand] += ace ? 1 : 0;
+        cardCounts[hand]++;
+    }
+    
+    /**
+     * Adds one card to every hand, as when all tables deal in lockstep.
+     * 
+     * @param hardValues the card value per hand, with Aces as 1 and 0 for no card
+     */
+    public void addToAll(int[] hardValues) {
+        for (int i = 0; i < size; i++) {
+            int value = hardValues[i];
+            hardTotals[i] += value;
+            aceCounts[i] += ((value ^ 1) - 1) >>> 31;   // 1 if the card is an Ace
+            cardCounts[i] += (-value) >>> 31;           // 1 if a card was dealt
+        }
+    }
+    
+    /**
+     * Loads the cards of an existing hand into a slot of the batch.
+     * 
+     * @param index the slot
+     * @param hand the hand to copy
+     */
+    public void load(int index, Hand hand) {
+        hardTotals[index] = 0;
+        aceCounts[index] = 0;
+        cardCounts[index] = 0;
+        ArrayList<Card> cards = hand.getCards();
+        for (int i = 0; i < cards.size(); i++) {
+            addCard(index, (BlackjackCard) cards.get(i));
+        }
+    }
+    
+    /**
+     * Scores every hand: total, soft flag, bust flag and Blackjack flag.
+     */
+    public void evaluate() {
+        // Local copies let the JIT drop bounds checks and vectorize the loop
+        int[] hardTotals = this.hardTotals;
+        int[] aceCounts = this.aceCounts;
+        int[] cardCounts = this.cardCounts;
+        int[] totals = this.totals;
+        int[] soft = this.soft;
+        int[] busted = this.busted;
+        int[] blackjack = this.blackjack;
+        for (int i = 0; i < totals.length; i++) {
+            // Masks are -1 (all bits set) for true and 0 for false
+            int hard = hardTotals[i];
+            int hasAce = (-aceCounts[i]) >> 31;
+            int aceFits = ~(11 - hard) >> 31;                   // An Ace can still count as 11
+            int softMask = hasAce & aceFits;
+            int total = hard + (softMask & 10);
+            totals[i] = total;
+            soft[i] = softMask & 1;
+            busted[i] = ((21 - total) >> 31) & 1;
+            blackjack[i] = ((total ^ 21) - 1) >>> 31;           // 21, checked for two cards below
+        }
+        
+        // Kept as a separate pass: reading a third array above stops the loop vectorizing
+        for (int i = 0; i < blackjack.length; i++) {
+            blackjack[i] &= ((cardCounts[i] ^ 2) - 1) >>> 31;
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int getTotal(int hand) {
+        return totals[hand];
+    }
+    
+    public boolean isSoft(int hand) {
+        return soft[hand] != 0;
+    }
+    
+    public boolean isBusted(int hand) {
+        return busted[hand] != 0;
+    }
+    
+    public boolean isBlackjack(int hand) {
+        return blackjack[hand] != 0;
+    }
+    
+    /**
+     * Gets the totals array filled by the last evaluate(), for bulk consumers.
+     * 
+     * @return the totals, indexed by hand
+     */
+    public int[] getTotals() {
+        return totals;
+    }
+    
+    /**
+     * Checks the batch against Hand on random hands and compares their speed.
+     * 
+     * @param args optional: batch size, iterations
+     */
+    public static void main(String[] args) {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        
+        Random random = new Random(17796L);
+        Hand[] hands = new Hand[tables];
+        HandBatch batch = new HandBatch(tables);
+        for (int i = 0; i < tables; i++) {
+            hands[i] = new Hand();
+            int cards = 1 + random.nextInt(5);
+            for (int c = 0; c < cards; c++) {
+                hands[i].addCard(BlackjackCard.fromIndex(random.nextInt(BlackjackCard.CARDS_PER_DECK)));
+            }
+            batch.load(i, hands[i]);
+        }
+        
+        batch.evaluate();
+        for (int i = 0; i < tables; i++) {
+            if (batch.getTotal(i) != hands[i].getValue() || batch.isSoft(i) != hands[i].isSoft()
+                    || batch.isBusted(i) != hands[i].isBusted() || batch.isBlackjack(i) != hands[i].isBlackjack()) {
+                throw new IllegalStateException("Mismatch for hand " + hands[i]);
+            }
+        }
+        
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int n = 0; n < iterations; n++) {
+            batch.evaluate();
+            sink += batch.getTotal(n % tables);
+        }
+        long batchNanos = System.nanoTime() - start;
+        
+        start = System.nanoTime();
+        for (int n = 0; n < iterations; n++) {
+            for (int i = 0; i < tables; i++) {
+                sink += hands[i].computeValue();
+            }
+        }
+        long handNanos = System.nanoTime() - start;
+        
+        System.out.printf("Batch of %d: %.1f ns per batch, Hand.getValue loop: %.1f ns (%d)%n",
+                tables, batchNanos / (double) iterations, handNanos / (double) iterations, sink % 10);
+    }
+}
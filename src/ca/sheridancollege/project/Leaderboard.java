@@ -0,0 +1,408 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * A live ranking of players by points.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranks player ids by points (highest first, ties by lower id) in an
+ * order-statistics treap: a balanced search tree where every node also stores
+ * the size of its subtree. A points change is one O(log n) remove and insert,
+ * a player's rank is one O(log n) descent, and the top K are read in O(K + log n).
+ * 
+ * The tree lives in parallel arrays indexed by node number, with freed nodes
+ * reused, so updates allocate nothing once the board has grown to size.
+ * A read-write lock lets any number of readers query while tables on other
+ * threads update points; the points themselves are read from the PointsSource
+ * inside the lock, so concurrent updates for one player always leave the board
+ * at that player's latest balance.
+ */
+public class Leaderboard {
+    
+    /**
+     * Supplies the current points of a player id.
+     */
+    public interface PointsSource {
+        int pointsOf(int id);
+    }
+    
+    private static final int NIL = 0;     // Node 0 is the empty tree, with size 0
+    
+    private final PointsSource source;
+    private final ReentrantReadWriteLock lock;
+    private long[] keys;
+    private int[] left;
+    private int[] right;
+    private int[] sizes;
+    private int[] priorities;
+    private int[] nodeById;               // Node holding each id, or NIL
+    private int root;
+    private int nextNode;
+    private int freeList;                 // Freed nodes, chained through left[]
+    private int seed;                     // Xorshift state for node priorities
+    
+    // Results of split(), valid until the next call (always under the write lock)
+    private int splitLeft;
+    private int splitRight;
+    
+    /**
+     * Constructor to create an empty leaderboard.
+     * 
+     * @param source where the current points of each id are read
+     */
+    public Leaderboard(PointsSource source) {
+        this.source = source;
+        this.lock = new ReentrantReadWriteLock();
+        this.keys = new long[16];
+        this.left = new int[16];
+        this.right = new int[16];
+        this.sizes = new int[16];
+        this.priorities = new int[16];
+        this.nodeById = new int[16];
+        this.nextNode = 1;
+        this.seed = 0x2545F491;
+    }
+    
+    /**
+     * Adds a player or moves them to their current points.
+     * 
+     * @param id the player id (a small non-negative int, such as a roster id)
+     */
+    public void refresh(int id) {
+        lock.writeLock().lock();
+        try {
+            if (id >= nodeById.length) {
+                nodeById = Arrays.copyOf(nodeById, Math.max(id + 1, nodeById.length * 2));
+            }
+            long key = key(source.pointsOf(id), id);
+            int node = nodeById[id];
+            if (node != NIL) {
+                if (keys[node] == key) {
+                    return;
+                }
+                root = delete(root, keys[node]);
+                freeNode(node);
+            }
+            node = newNode(key);
+            nodeById[id] = node;
+            split(root, key);
+            root = merge(merge(splitLeft, node), splitRight);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Removes a player from the board.
+     * 
+     * @param id the player id
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            int node = id < nodeById.length ? nodeById[id] : NIL;
+            if (node != NIL) {
+                root = delete(root, keys[node]);
+                freeNode(node);
+                nodeById[id] = NIL;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets a player's position on the board.
+     * 
+     * @param id the player id
+     * @return the rank, 1 for the leader, or -1 if the player is not on the board
+     */
+    public int rankOf(int id) {
+        lock.readLock().lock();
+        try {
+            int node = id < nodeById.length ? nodeById[id] : NIL;
+            if (node == NIL) {
+                return -1;
+            }
+            long key = keys[node];
+            int before = 0;
+            int t = root;
+            while (t != NIL) {
+                if (keys[t] < key) {
+                    before += sizes[left[t]] + 1;
+                    t = right[t];
+                } else {
+                    t = left[t];
+                }
+            }
+            return before + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets the player at a position on the board.
+     * 
+     * @param rank the rank, from 1
+     * @return the player id, or -1 if the board is smaller than that
+     */
+    public int playerAt(int rank) {
+        lock.readLock().lock();
+        try {
+            int index = rank - 1;
+            if (index < 0 || index >= sizes[root]) {
+                return -1;
+            }
+            int t = root;
+            while (true) {
+                int leftSize = sizes[left[t]];
+                if (index < leftSize) {
+                    t = left[t];
+                } else if (index == leftSize) {
+                    return idOf(keys[t]);
+                } else {
+                    index -= leftSize + 1;
+                    t = right[t];
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets the leading players.
+     * 
+     * @param k the number of players to return
+     * @return up to k player ids, highest points first
+     */
+    public int[] top(int k) {
+        lock.readLock().lock();
+        try {
+            int[] ids = new int[Math.max(0, Math.min(k, sizes[root]))];
+            int[] stack = new int[16];
+            int depth = 0;
+            int t = root;
+            int count = 0;
+            while (count < ids.length) {
+                while (t != NIL) {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = t;
+                    t = left[t];
+                }
+                t = stack[--depth];
+                ids[count++] = idOf(keys[t]);
+                t = right[t];
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Gets the number of players on the board.
+     * 
+     * @return the number of players
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return sizes[root];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Splits a subtree into keys below the given key (splitLeft) and the rest (splitRight).
+     */
+    private void split(int t, long key) {
+        if (t == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+        } else if (keys[t] < key) {
+            split(right[t], key);
+            right[t] = splitLeft;
+            update(t);
+            splitLeft = t;
+        } else {
+            split(left[t], key);
+            left[t] = splitRight;
+            update(t);
+            splitRight = t;
+        }
+    }
+    
+    /**
+     * Joins two subtrees where every key in the first is below every key in the second.
+     */
+    private int merge(int a, int b) {
+        if (a == NIL) {
+            return b;
+        }
+        if (b == NIL) {
+            return a;
+        }
+        if (priorities[a] > priorities[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+    
+    /**
+     * Removes the node with the given key from a subtree.
+     */
+    private int delete(int t, long key) {
+        if (t == NIL) {
+            return NIL;
+        }
+        if (keys[t] == key) {
+            return merge(left[t], right[t]);
+        }
+        if (keys[t] < key) {
+            right[t] = delete(right[t], key);
+        } else {
+            left[t] = delete(left[t], key);
+        }
+        update(t);
+        return t;
+    }
+    
+    private void update(int t) {
+        sizes[t] = sizes[left[t]] + sizes[right[t]] + 1;
+    }
+    
+    private int newNode(long key) {
+        int node;
+        if (freeList != NIL) {
+            node = freeList;
+            freeList = left[node];
+        } else {
+            if (nextNode == keys.length) {
+                int capacity = keys.length * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+            }
+            node = nextNode++;
+        }
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        keys[node] = key;
+        left[node] = NIL;
+        right[node] = NIL;
+        sizes[node] = 1;
+        priorities[node] = seed;
+        return node;
+    }
+    
+    private void freeNode(int node) {
+        left[node] = freeList;
+        freeList = node;
+    }
+    
+    /**
+     * Builds a key that sorts by points descending, then id ascending.
+     */
+    private static long key(int points, int id) {
+        return ((long) (Integer.MAX_VALUE - points) << 32) | (id & 0xFFFFFFFFL);
+    }
+    
+    private static int idOf(long key) {
+        return (int) (key & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Checks the board against a full sort and measures it with many players
+     * updated from several threads.
+     * 
+     * @param args optional: players, updates per thread, threads
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        
+        BankrollLedger.Account[] accounts = new BankrollLedger.Account[players];
+        for (int i = 0; i < players; i++) {
+            accounts[i] = new BankrollLedger.Account(BlackjackPlayer.STARTING_POINTS);
+        }
+        Leaderboard board = new Leaderboard(id -> accounts[id].getBalance());
+        long start = System.nanoTime();
+        for (int i = 0; i < players; i++) {
+            board.refresh(i);
+        }
+        System.out.printf("Added %d players in %.0f ms%n", players, (System.nanoTime() - start) / 1e6);
+        
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final Random random = new Random(t);
+            workers[t] = new Thread(() -> {
+                for (int n = 0; n < updates; n++) {
+                    int id = random.nextInt(players);
+                    if (random.nextBoolean()) {
+                        accounts[id].credit(1 + random.nextInt(50));
+                    } else {
+                        accounts[id].debit(Math.min(accounts[id].getBalance(), 1 + random.nextInt(50)));
+                    }
+                    board.refresh(id);
+                    if ((n & 1023) == 0) {
+                        board.top(10);
+                    }
+                }
+            });
+        }
+        start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            workers[t].start();
+        }
+        for (int t = 0; t < threads; t++) {
+            workers[t].join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d updates on %d threads: %,.0f updates/s%n",
+                (long) updates * threads, threads, updates * threads / seconds);
+        
+        long[] expected = new long[players];
+        for (int i = 0; i < players; i++) {
+            expected[i] = key(accounts[i].getBalance(), i);
+        }
+        Arrays.sort(expected);
+        int[] top = board.top(100);
+        for (int i = 0; i < top.length; i++) {
+            if (top[i] != idOf(expected[i]) || board.rankOf(top[i]) != i + 1 || board.playerAt(i + 1) != top[i]) {
+                throw new IllegalStateException("Leaderboard disagrees with a full sort at rank " + (i + 1));
+            }
+        }
+        int sample = idOf(expected[players / 2]);
+        if (board.rankOf(sample) != players / 2 + 1 || board.size() != players) {
+            throw new IllegalStateException("Leaderboard rank query disagrees with a full sort");
+        }
+        start = System.nanoTime();
+        long sink = 0;
+        for (int n = 0; n < 100_000; n++) {
+            sink += board.rankOf(n % players);
+        }
+        System.out.printf("Rank query %.0f ns, leader %d with %d points (%d)%n",
+                (System.nanoTime() - start) / 1e5, top[0], accounts[top[0]].getBalance(), sink % 10);
+    }
+}
@@ -0,0 +1,503 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Drives many scripted clients against BlackjackGame tables and measures latency.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A capacity test for the interactive game. Every client plays whole games of
+ * BlackjackGame through the same text path a person at the console uses: it
+ * reads the table output, waits for a prompt, thinks for a random time and
+ * answers with a bet, hit or stand. The time from sending an answer to the
+ * next prompt arriving is that action's end-to-end latency, which is collected
+ * per action type and reported as percentiles.
+ * 
+ * Tables run on their own threads in this JVM, connected to their clients either
+ * by in-process pipes or over loopback TCP sockets (a local server socket that
+ * starts a table for each connection). Nothing leaves the machine.
+ * 
+ * When the test time is up each client quits at its next bet prompt, so every
+ * game ends cleanly.
+ */
+public class LoadGenerator {
+    
+    /**
+     * The answers a client sends, each timed until the game's next prompt.
+     */
+    public enum Action {
+        BET, HIT, STAND, NEXT_ROUND, QUIT
+    }
+    
+    /**
+     * How clients reach their tables.
+     */
+    public enum Transport {
+        IN_PROCESS, SOCKET
+    }
+    
+    /**
+     * Counts latencies in log-linear buckets (128 per power of two, so within
+     * 1% of the recorded value) for percentiles over any number of samples.
+     */
+    public static class LatencyHistogram {
+        private static final int SUB_BUCKETS = 128;
+        
+        private final long[] counts;
+        private long total;
+        private long sum;
+        private long max;
+        
+        public LatencyHistogram() {
+            this.counts = new long[64 * SUB_BUCKETS];
+        }
+        
+        /**
+         * Adds one latency.
+         * 
+         * @param nanos the latency in nanoseconds
+         */
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts[index(value)]++;
+            total++;
+            sum += value;
+            max = Math.max(max, value);
+        }
+        
+        /**
+         * Adds every latency recorded in another histogram.
+         * 
+         * @param other the other histogram
+         */
+        public void merge(LatencyHistogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            total += other.total;
+            sum += other.sum;
+            max = Math.max(max, other.max);
+        }
+        
+        public long getCount() {
+            return total;
+        }
+        
+        public double getMean() {
+            return total == 0 ? 0 : (double) sum / total;
+        }
+        
+        public long getMax() {
+            return max;
+        }
+        
+        /**
+         * Gets the latency within which the given fraction of samples fell.
+         * 
+         * @param fraction a fraction from 0 to 1
+         * @return the percentile in nanoseconds (the top of its bucket)
+         */
+        public long getPercentile(double fraction) {
+            long target = Math.max(1, (long) Math.ceil(fraction * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    int shift = i < 2 * SUB_BUCKETS ? 0 : i / SUB_BUCKETS - 1;
+                    long top = ((long) (i - shift * SUB_BUCKETS) << shift) + (1L << shift) - 1;
+                    return Math.min(top, max);
+                }
+            }
+            return max;
+        }
+        
+        private static int index(long value) {
+            int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - 7);
+            return shift * SUB_BUCKETS + (int) (value >>> shift);
+        }
+    }
+    
+    private static final int PIPE_SIZE = 64 * 1024;
+    
+    private final int clients;
+    private final int seats;
+    private final Transport transport;
+    private double thinkMillis;         // Mean think time before each answer
+    private double hitRate;             // Chance of hitting at each hit-or-stand prompt
+    private int bet;
+    private long dealerDelayMillis;
+    private long seed;
+    
+    // Totals, merged from the clients when they finish
+    private final LatencyHistogram[] latencies;
+    private long games;
+    private long rounds;
+    private int errors;
+    private long elapsedNanos;
+    
+    private ServerSocket server;
+    
+    /**
+     * Constructor to create a load test.
+     * 
+     * @param clients the number of clients, each playing at its own table
+     * @param seats the players each client seats at its table
+     * @param transport how clients reach their tables
+     */
+    public LoadGenerator(int clients, int seats, Transport transport) {
+        if (clients < 1 || seats < 1 || seats > BlackjackGame.MAX_SEATS) {
+            throw new IllegalArgumentException("Need at least one client and 1-" + BlackjackGame.MAX_SEATS + " seats");
+        }
+        this.clients = clients;
+        this.seats = seats;
+        this.transport = transport;
+        this.thinkMillis = 0;
+        this.hitRate = 0.4;
+        this.bet = 10;
+        this.dealerDelayMillis = 0;
+        this.seed = 1;
+        this.latencies = new LatencyHistogram[Action.values().length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+    
+    /**
+     * Sets the mean think time; each pause is drawn from an exponential
+     * distribution, so the client's action rate is about 1000 / thinkMillis per second.
+     * 
+     * @param thinkMillis the mean pause before each answer, 0 for none
+     */
+    public void setThinkMillis(double thinkMillis) {
+        this.thinkMillis = thinkMillis;
+    }
+    
+    /**
+     * Sets how often clients hit rather than stand.
+     * 
+     * @param hitRate the chance of hitting, from 0 to 1
+     */
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+    
+    /**
+     * Sets the bet clients place each round (less if they have fewer points).
+     * 
+     * @param bet the bet
+     */
+    public void setBet(int bet) {
+        this.bet = bet;
+    }
+    
+    /**
+     * Sets the tables' pause after each dealer draw.
+     * 
+     * @param dealerDelayMillis the pause, 0 for none
+     */
+    public void setDealerDelayMillis(long dealerDelayMillis) {
+        this.dealerDelayMillis = dealerDelayMillis;
+    }
+    
+    /**
+     * Sets the seed for the clients' think times and decisions.
+     * 
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * Runs every client until the time is up and their last games have ended.
+     * 
+     * @param durationMillis how long clients keep starting rounds
+     * @throws IOException if the loopback server cannot be started
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public void run(long durationMillis) throws IOException, InterruptedException {
+        if (transport == Transport.SOCKET) {
+            startServer();
+        }
+        long start = System.nanoTime();
+        long deadline = start + durationMillis * 1_000_000L;
+        ScriptedClient[] scripts = new ScriptedClient[clients];
+        Thread[] threads = new Thread[clients];
+        for (int i = 0; i < clients; i++) {
+            scripts[i] = new ScriptedClient(i, deadline, new Random(seed + i));
+            threads[i] = new Thread(scripts[i], "load-client-" + i);
+            threads[i].start();
+        }
+        for (int i = 0; i < clients; i++) {
+            threads[i].join();
+            for (int a = 0; a < latencies.length; a++) {
+                latencies[a].merge(scripts[i].latencies[a]);
+            }
+            games += scripts[i].games;
+            rounds += scripts[i].rounds;
+            errors += scripts[i].failed ? 1 : 0;
+        }
+        elapsedNanos = System.nanoTime() - start;
+        if (server != null) {
+            server.close();
+        }
+    }
+    
+    /**
+     * Gets the latencies recorded for an action.
+     * 
+     * @param action the action
+     * @return its latency histogram
+     */
+    public LatencyHistogram getLatencies(Action action) {
+        return latencies[action.ordinal()];
+    }
+    
+    /**
+     * Prints the totals and a latency table.
+     * 
+     * @param out where to print
+     */
+    public void printReport(PrintStream out) {
+        long actions = 0;
+        for (int a = 0; a < latencies.length; a++) {
+            actions += latencies[a].getCount();
+        }
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%d clients x %d seat%s over %s, think %.0f ms, hit rate %.2f, dealer delay %d ms%n",
+                clients, seats, seats == 1 ? "" : "s",
+                transport == Transport.SOCKET ? "loopback sockets" : "in-process pipes",
+                thinkMillis, hitRate, dealerDelayMillis);
+        out.printf("%.1f s: %d games, %d rounds, %d actions (%,.0f/s), %d client errors%n",
+                seconds, games, rounds, actions, actions / seconds, errors);
+        out.printf("  %-10s %9s %9s %9s %9s %9s %9s %9s%n",
+                "Action", "count", "mean", "p50", "p90", "p99", "p99.9", "max");
+        Action[] actionTypes = Action.values();
+        for (int a = 0; a < actionTypes.length; a++) {
+            LatencyHistogram h = latencies[a];
+            if (h.getCount() == 0) {
+                continue;
+            }
+            out.printf("  %-10s %9d %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                    actionTypes[a], h.getCount(), h.getMean() / 1e6,
+                    h.getPercentile(0.5) / 1e6, h.getPercentile(0.9) / 1e6,
+                    h.getPercentile(0.99) / 1e6, h.getPercentile(0.999) / 1e6, h.getMax() / 1e6);
+        }
+        out.println("  (latencies in ms, from sending an answer to the next prompt)");
+    }
+    
+    /**
+     * Starts a loopback server that runs a table for every connection.
+     */
+    private void startServer() throws IOException {
+        server = new ServerSocket(0, clients, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    socket.setTcpNoDelay(true);
+                    startTable(socket.getInputStream(), socket.getOutputStream(), socket);
+                } catch (IOException e) {
+                    if (!server.isClosed()) {
+                        System.err.println("Error: Could not accept a client: " + e.getMessage());
+                    }
+                }
+            }
+        }, "load-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+    
+    /**
+     * Plays one game on its own thread over the given streams.
+     * 
+     * @param in the client's answers
+     * @param out where the table output goes
+     * @param connection closed when the game ends
+     */
+    private void startTable(InputStream in, OutputStream out, Closeable connection) {
+        Thread table = new Thread(() -> {
+            PrintStream print = new PrintStream(new BufferedOutputStream(out, 8192), false);
+            try {
+                new BlackjackGame(in, print, dealerDelayMillis).play();
+            } catch (NoSuchElementException e) {
+                // The client hung up mid-game
+            } finally {
+                print.close();
+                try {
+                    connection.close();
+                } catch (IOException e) {
+                    // Already closed
+                }
+            }
+        }, "load-table");
+        table.setDaemon(true);
+        table.start();
+    }
+    
+    /**
+     * One client: plays games back to back until the deadline, answering every prompt.
+     */
+    private final class ScriptedClient implements Runnable {
+        private final int number;
+        private final long deadline;
+        private final Random random;
+        private final LatencyHistogram[] latencies;
+        private long games;
+        private long rounds;
+        private boolean failed;
+        
+        ScriptedClient(int number, long deadline, Random random) {
+            this.number = number;
+            this.deadline = deadline;
+            this.random = random;
+            this.latencies = new LatencyHistogram[Action.values().length];
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new LatencyHistogram();
+            }
+        }
+        
+        @Override
+        public void run() {
+            try {
+                while (System.nanoTime() < deadline) {
+                    if (transport == Transport.SOCKET) {
+                        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort())) {
+                            socket.setTcpNoDelay(true);
+                            playGame(socket.getInputStream(), socket.getOutputStream());
+                        }
+                    } else {
+                        PipedInputStream gameIn = new PipedInputStream(PIPE_SIZE);
+                        PipedOutputStream toGame = new PipedOutputStream(gameIn);
+                        PipedInputStream fromGame = new PipedInputStream(PIPE_SIZE);
+                        startTable(gameIn, new PipedOutputStream(fromGame), gameIn);
+                        try {
+                            playGame(fromGame, toGame);
+                        } finally {
+                            toGame.close();
+                            fromGame.close();
+                        }
+                    }
+                    games++;
+                }
+            } catch (IOException | IllegalStateException e) {
+                failed = true;
+                System.err.println("Error: Client " + number + ": " + e.getMessage());
+            }
+        }
+        
+        /**
+         * Reads table output until the game ends, answering each prompt as it arrives.
+         */
+        private void playGame(InputStream fromGame, OutputStream toGame) throws IOException {
+            Reader reader = new InputStreamReader(fromGame);
+            Writer writer = new OutputStreamWriter(toGame);
+            char[] buffer = new char[8192];
+            StringBuilder pending = new StringBuilder();
+            Action lastAction = null;
+            long sentAt = 0;
+            int named = 0;
+            int n;
+            while ((n = reader.read(buffer)) >= 0) {
+                pending.append(buffer, 0, n);
+                int length = pending.length();
+                if (length < 2 || !(pending.charAt(length - 1) == ' ' && pending.charAt(length - 2) == ':')
+                        && !(pending.charAt(length - 1) == '.' && pending.charAt(length - 2) == '.')) {
+                    continue;   // Every prompt ends in ": " or "..."; anything else is still arriving
+                }
+                int line = pending.lastIndexOf("\n") + 1;
+                String answer;
+                Action action;
+                if (startsWith(pending, line, "Enter bet amount (1-")) {
+                    int max = Integer.parseInt(pending.substring(line + 20, pending.indexOf(",", line)));
+                    action = System.nanoTime() < deadline ? Action.BET : Action.QUIT;
+                    answer = action == Action.BET ? String.valueOf(Math.min(bet, max)) : "0";
+                } else if (startsWith(pending, line, "Enter choice")) {
+                    action = random.nextDouble() < hitRate ? Action.HIT : Action.STAND;
+                    answer = action == Action.HIT ? "1" : "2";
+                } else if (startsWith(pending, line, "Press Enter")) {
+                    action = Action.NEXT_ROUND;
+                    answer = "";
+                    rounds++;
+                } else if (startsWith(pending, line, "Enter number of players")) {
+                    action = null;      // Setup prompts are not timed
+                    answer = String.valueOf(seats);
+                } else if (startsWith(pending, line, "Enter name for Player")) {
+                    action = null;
+                    answer = "c" + number + "-" + (++named);
+                } else if (startsWith(pending, line, "Please enter") || startsWith(pending, line, "Invalid input")) {
+                    throw new IllegalStateException("Table rejected an answer: " + pending.substring(line));
+                } else {
+                    continue;
+                }
+                if (lastAction != null) {
+                    latencies[lastAction.ordinal()].record(System.nanoTime() - sentAt);
+                }
+                pending.setLength(0);
+                if (thinkMillis > 0) {
+                    LockSupport.parkNanos((long) (-thinkMillis * 1e6 * Math.log(1 - random.nextDouble())));
+                }
+                writer.write(answer);
+                writer.write('\n');
+                writer.flush();
+                sentAt = System.nanoTime();
+                lastAction = action;
+            }
+            if (lastAction != null) {
+                latencies[lastAction.ordinal()].record(System.nanoTime() - sentAt);   // Until the final standings
+            }
+        }
+    }
+    
+    private static boolean startsWith(StringBuilder text, int from, String prefix) {
+        return text.length() - from >= prefix.length() && text.indexOf(prefix, from) == from;
+    }
+    
+    /**
+     * Runs a load test and prints the report.
+     * 
+     * @param args optional: clients, seconds, think millis, hit rate, transport (pipe or socket),
+     *             seats per table, bet, dealer delay millis
+     * @throws IOException if the loopback server cannot be started
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        double think = args.length > 2 ? Double.parseDouble(args[2]) : 20;
+        double hitRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.4;
+        Transport transport = args.length > 4 && args[4].equals("socket") ? Transport.SOCKET : Transport.IN_PROCESS;
+        int seats = args.length > 5 ? Integer.parseInt(args[5]) : 1;
+        int bet = args.length > 6 ? Integer.parseInt(args[6]) : 10;
+        long dealerDelay = args.length > 7 ? Long.parseLong(args[7]) : 0;
+        
+        LoadGenerator load = new LoadGenerator(clients, seats, transport);
+        load.setThinkMillis(think);
+        load.setHitRate(hitRate);
+        load.setBet(bet);
+        load.setDealerDelayMillis(dealerDelay);
+        load.run(seconds * 1000);
+        load.printReport(System.out);
+    }
+}
@@ -0,0 +1,311 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Seats players at tables and keeps their bankrolls, as an actor.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The lobby and bankroll service for many tables. Every table is a TableActor
+ * and the lobby is an actor too, so all the state of a table is confined to
+ * whichever thread runs it and all the state here (accounts, the waiting line,
+ * the leaderboard) is confined to the lobby's thread. They only exchange
+ * messages through their mailboxes, so no lock is taken while rounds are played
+ * and the number of tables that play at once grows with the threads given to them.
+ * 
+ * Players join and wait in line. Whenever a table is free the lobby reserves a
+ * stake from the next players' accounts and sends the table a session; when the
+ * table reports back, each stake is settled into its account, the leaderboard is
+ * updated and players with points left rejoin the line. The lobby sends a
+ * table one session at a time and each table reports once per session, so the
+ * mailboxes never hold more than a known number of messages.
+ */
+public class Lobby extends Actor<Lobby.Message> {
+    
+    // Decks in the shoe at every table
+    private static final int NUM_DECKS = 6;
+    
+    /**
+     * Something the lobby is told.
+     */
+    public abstract static class Message {
+    }
+    
+    /**
+     * A new player with a bankroll.
+     */
+    public static final class Join extends Message {
+        private final String name;
+        private final int bankroll;
+        
+        public Join(String name, int bankroll) {
+            this.name = name;
+            this.bankroll = bankroll;
+        }
+    }
+    
+    /**
+     * Opens the tables for a total number of rounds.
+     */
+    public static final class Start extends Message {
+        private final long rounds;
+        
+        public Start(long rounds) {
+            this.rounds = rounds;
+        }
+    }
+    
+    /**
+     * A table's report at the end of a session.
+     */
+    public static final class SessionEnded extends Message {
+        private final int tableId;
+        private final TableActor.Session session;
+        private final int[] finalStakes;
+        private final int roundsPlayed;
+        
+        public SessionEnded(int tableId, TableActor.Session session, int[] finalStakes, int roundsPlayed) {
+            this.tableId = tableId;
+            this.session = session;
+            this.finalStakes = finalStakes;
+            this.roundsPlayed = roundsPlayed;
+        }
+    }
+    
+    private final TableActor[] tables;
+    private final boolean[] busy;
+    private final int seatsPerTable;
+    private final int stake;
+    private final int roundsPerSession;
+    private final long seed;
+    private final BankrollLedger ledger;
+    private final ArrayList<BankrollLedger.Account> accounts;  // Index is the player id
+    private final ArrayList<String> names;
+    private final ArrayDeque<Integer> waiting;
+    private final Leaderboard leaderboard;
+    private final CountDownLatch finished;
+    private int busyTables;
+    private boolean started;
+    private long roundsLeft;            // Rounds not yet handed to a table
+    private long roundsPlayed;
+    private long sessions;
+    
+    /**
+     * Constructor to create a lobby and its tables.
+     * 
+     * @param executor runs the lobby
+     * @param tableExecutor runs the tables (usually one thread per core)
+     * @param tableCount the number of tables
+     * @param seatsPerTable the players seated per session
+     * @param stake the most points a player takes to a table
+     * @param roundsPerSession the rounds played per session
+     * @param strategy the strategy every seat plays
+     * @param seed the seed for the sessions' shoes
+     */
+    public Lobby(Executor executor, Executor tableExecutor, int tableCount, int seatsPerTable, int stake,
+                 int roundsPerSession, Strategy strategy, long seed) {
+        super(executor, 2 * tableCount + 64);   // One report per table, plus joins arriving in bursts
+        if (seatsPerTable < 1 || seatsPerTable > BlackjackGame.MAX_SEATS) {
+            throw new IllegalArgumentException("Seats per table must be 1-" + BlackjackGame.MAX_SEATS);
+        }
+        this.tables = new TableActor[tableCount];
+        for (int t = 0; t < tableCount; t++) {
+            tables[t] = new TableActor(t, NUM_DECKS, strategy, this, tableExecutor);
+        }
+        this.busy = new boolean[tableCount];
+        this.seatsPerTable = seatsPerTable;
+        this.stake = stake;
+        this.roundsPerSession = roundsPerSession;
+        this.seed = seed;
+        this.ledger = new BankrollLedger();
+        this.accounts = new ArrayList<>();
+        this.names = new ArrayList<>();
+        this.waiting = new ArrayDeque<>();
+        this.leaderboard = new Leaderboard(id -> accounts.get(id).getBalance());
+        this.finished = new CountDownLatch(1);
+    }
+    
+    /**
+     * Adds a player. Safe to call from any thread.
+     * 
+     * @param name the player's name
+     * @param bankroll the player's starting points
+     */
+    public void join(String name, int bankroll) {
+        tell(new Join(name, bankroll));
+    }
+    
+    /**
+     * Starts seating players. Safe to call from any thread.
+     * 
+     * @param rounds the total rounds to play across all tables
+     */
+    public void start(long rounds) {
+        tell(new Start(rounds));
+    }
+    
+    /**
+     * Waits until the rounds are played, or every player is out of points.
+     * The getters below may be called once this returns.
+     * 
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitFinished() throws InterruptedException {
+        finished.await();
+    }
+    
+    @Override
+    protected void receive(Message message) {
+        if (message instanceof SessionEnded) {
+            sessionEnded((SessionEnded) message);
+        } else if (message instanceof Join) {
+            Join join = (Join) message;
+            int id = accounts.size();
+            accounts.add(ledger.open(join.bankroll));
+            names.add(join.name);
+            leaderboard.refresh(id);
+            if (join.bankroll > 0) {
+                waiting.add(id);
+            }
+        } else if (message instanceof Start) {
+            started = true;
+            roundsLeft = ((Start) message).rounds;
+        }
+        dispatch();
+    }
+    
+    /**
+     * Settles a finished session and frees its table.
+     */
+    private void sessionEnded(SessionEnded ended) {
+        busy[ended.tableId] = false;
+        busyTables--;
+        roundsPlayed += ended.roundsPlayed;
+        roundsLeft += ended.session.getRounds() - ended.roundsPlayed;   // Everyone went broke early
+        int[] ids = ended.session.getPlayerIds();
+        int[] stakes = ended.session.getStakes();
+        for (int i = 0; i < ids.length; i++) {
+            BankrollLedger.Account account = accounts.get(ids[i]);
+            account.settle(stakes[i], ended.finalStakes[i] - stakes[i]);
+            leaderboard.refresh(ids[i]);
+            if (account.getAvailable() > 0) {
+                waiting.add(ids[i]);
+            }
+        }
+    }
+    
+    /**
+     * Sends a session to every free table while there are players and rounds left.
+     */
+    private void dispatch() {
+        if (!started || finished.getCount() == 0) {
+            return;
+        }
+        for (int t = 0; t < tables.length && !waiting.isEmpty() && roundsLeft > 0; t++) {
+            if (busy[t]) {
+                continue;
+            }
+            int seats = Math.min(seatsPerTable, waiting.size());
+            int[] ids = new int[seats];
+            String[] seatNames = new String[seats];
+            int[] stakes = new int[seats];
+            for (int i = 0; i < seats; i++) {
+                ids[i] = waiting.poll();
+                BankrollLedger.Account account = accounts.get(ids[i]);
+                seatNames[i] = names.get(ids[i]);
+                stakes[i] = Math.min(stake, account.getAvailable());
+                account.reserve(stakes[i]);
+            }
+            int rounds = (int) Math.min(roundsPerSession, roundsLeft);
+            roundsLeft -= rounds;
+            busy[t] = true;
+            busyTables++;
+            tables[t].tell(new TableActor.Session(ids, seatNames, stakes, rounds, seed + sessions++));
+        }
+        if (busyTables == 0 && (roundsLeft == 0 || waiting.isEmpty())) {
+            finished.countDown();
+        }
+    }
+    
+    public long getRoundsPlayed() {
+        return roundsPlayed;
+    }
+    
+    public long getSessions() {
+        return sessions;
+    }
+    
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+    
+    public BankrollLedger getLedger() {
+        return ledger;
+    }
+    
+    public String getName(int id) {
+        return names.get(id);
+    }
+    
+    public BankrollLedger.Account getAccount(int id) {
+        return accounts.get(id);
+    }
+    
+    public int getPlayerCount() {
+        return accounts.size();
+    }
+    
+    /**
+     * Plays the same workload with more and more table threads, checks that
+     * every bankroll matches its journal, and prints the rounds per second.
+     * 
+     * @param args optional: tables, players, total rounds, rounds per session, most threads
+     * @throws InterruptedException if interrupted while waiting for the lobby
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int tableCount = args.length > 0 ? Integer.parseInt(args[0]) : 4 * cores;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 8 * tableCount;
+        long rounds = args.length > 2 ? Long.parseLong(args[2]) : 4_000_000L;
+        int perSession = args.length > 3 ? Integer.parseInt(args[3]) : 1_000;
+        int maxThreads = args.length > 4 ? Integer.parseInt(args[4]) : cores;
+        
+        System.out.printf("%d tables, %d players, %,d rounds in sessions of %d%n",
+                tableCount, players, rounds, perSession);
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ExecutorService lobbyThread = Executors.newSingleThreadExecutor();
+            ExecutorService tableThreads = Executors.newFixedThreadPool(threads);
+            Lobby lobby = new Lobby(lobbyThread, tableThreads, tableCount, 3, 1_000, perSession,
+                                    PolicyStrategy.basic(10), 17796L);
+            for (int p = 0; p < players; p++) {
+                lobby.join("Player " + p, 1_000_000);
+            }
+            long start = System.nanoTime();
+            lobby.start(rounds);
+            lobby.awaitFinished();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            lobbyThread.shutdown();
+            tableThreads.shutdown();
+            
+            for (int id = 0; id < lobby.getPlayerCount(); id++) {
+                BankrollLedger.Account account = lobby.getAccount(id);
+                if (account.getReserved() != 0 || account.replayBalance() != account.getBalance()) {
+                    throw new IllegalStateException("Bankroll of " + lobby.getName(id) + " does not match its journal");
+                }
+            }
+            int leader = lobby.getLeaderboard().playerAt(1);
+            System.out.printf("  %2d thread%s: %,12.0f rounds/s  (%d sessions, leader %s with %d)%n",
+                    threads, threads == 1 ? " " : "s", lobby.getRoundsPlayed() / seconds, lobby.getSessions(),
+                    lobby.getName(leader), lobby.getAccount(leader).getBalance());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * A bounded lock-free queue with many senders and one receiver.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The message queue of an Actor: any number of threads may offer, but only the
+ * actor's current thread polls. It is a ring of slots whose size is a power of
+ * two. A sender claims a position by advancing the tail with compare-and-set and
+ * then publishes its message into the slot; the receiver takes from the head
+ * without any atomic read-modify-write, since it is the only one moving it.
+ * 
+ * A full mailbox refuses the message instead of growing, so a slow actor pushes
+ * back on its senders rather than using up memory.
+ * 
+ * @param <T> the message type
+ */
+public class Mailbox<T> {
+    
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong head;      // Next position to poll; written by the receiver only
+    private final AtomicLong tail;      // Next position to claim
+    
+    /**
+     * Constructor to create an empty mailbox.
+     * 
+     * @param capacity the most messages held, rounded up to a power of two
+     */
+    public Mailbox(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be from 1 to 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+    }
+    
+    /**
+     * Adds a message if there is room. Safe to call from any thread.
+     * 
+     * @param message the message, not null
+     * @return false if the mailbox is full
+     */
+    public boolean offer(T message) {
+        if (message == null) {
+            throw new IllegalArgumentException("Messages cannot be null");
+        }
+        while (true) {
+            long position = tail.get();
+            if (position - head.get() > mask) {
+                return false;
+            }
+            if (tail.compareAndSet(position, position + 1)) {
+                // The slot was emptied by the receiver before it moved the head past it
+                slots.lazySet((int) position & mask, message);
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Removes the oldest message. Only the receiving thread may call this.
+     * 
+     * @return the message, or null if there is none yet (a sender may have
+     *         claimed the next slot but not filled it)
+     */
+    public T poll() {
+        long position = head.get();
+        int index = (int) position & mask;
+        T message = slots.get(index);
+        if (message == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(position + 1);
+        return message;
+    }
+    
+    /**
+     * Gets an estimate of the number of messages waiting.
+     * 
+     * @return the number of claimed positions not yet polled
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+    
+    /**
+     * Gets the number of messages the mailbox can hold.
+     * 
+     * @return the capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
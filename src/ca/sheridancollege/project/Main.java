@@ -7,19 +7,62 @@
  */
 package ca.sheridancollege.project;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 /**
  * Main class to start the Blackjack game.
  */
 public class Main {
     
+    // Where player profiles are saved, relative to the working directory
+    private static final String PROFILE_FILE = "blackjack-profiles.log";
+    
     /**
      * Program entry point.
      * 
-     * @param args command line arguments (not used)
+     * @param args command line arguments: --side-bets to offer Perfect Pairs and 21+3,
+     *             --csm to deal from a continuous shuffling machine,
+     *             --events to log game events to stderr,
+     *             or --batch CONFIG to run a batch simulation instead
      */
     public static void main(String[] args) {
-        // Create and start the game
+        if (args.length > 0 && args[0].equals("--batch")) {
+            // Headless simulation from a configuration file instead of the interactive game
+            BatchSimulation.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        
+        // Create and start the game, saving player points between launches
         BlackjackGame game = new BlackjackGame();
-        game.play();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--side-bets")) {
+                game.setSideBetsEnabled(true);
+            } else if (args[i].equals("--csm")) {
+                game.setContinuousShuffle(true);
+            } else if (args[i].equals("--events")) {
+                game.getEvents().subscribe(new GameEventPublisher.EventLog(System.err));
+            }
+        }
+        ProfileStore store = null;
+        try {
+            store = new ProfileStore(Paths.get(PROFILE_FILE));
+            game.setProfileStore(store);
+        } catch (IOException e) {
+            System.err.println("Warning: Player profiles unavailable, points will not be saved: " + e.getMessage());
+        }
+        
+        try {
+            game.play();
+        } finally {
+            if (store != null) {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    System.err.println("Error: Could not save player profiles: " + e.getMessage());
+                }
+            }
+        }
     }
 }
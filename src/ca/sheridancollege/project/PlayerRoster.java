@@ -0,0 +1,223 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * An indexed roster of registered players and table seats.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Keeps every registered player in the game's own player list, indexed by id
+ * (their position in that list) and by name for O(1) lookup. Players are seated
+ * at a table by id, and a Leaderboard kept up to date on every points change
+ * answers top-K and rank queries without scanning the roster.
+ * 
+ * The Blackjack view of the seated players is a live view over the same list,
+ * so Game.getPlayers() and the table never hold separate copies.
+ */
+public class PlayerRoster implements BlackjackPlayer.PointsListener {
+    
+    private final ArrayList<Player> players;            // Shared with Game; index is the player id
+    private final HashMap<String, Integer> idsByName;
+    private final int[] seats;                          // Player ids in seat order
+    private int seatedCount;
+    private final Leaderboard leaderboard;              // Highest points first
+    private final List<BlackjackPlayer> seatedView;
+    
+    /**
+     * Constructor to create a roster over a game's player list.
+     * 
+     * @param players the game's player list, which becomes the roster's storage
+     * @param maxSeats the number of seats at the table
+     */
+    public PlayerRoster(ArrayList<Player> players, int maxSeats) {
+        this.players = players;
+        this.idsByName = new HashMap<>();
+        this.seats = new int[maxSeats];
+        this.leaderboard = new Leaderboard(id -> getPlayer(id).getPoints());
+        this.seatedView = new AbstractList<BlackjackPlayer>() {
+            @Override
+            public BlackjackPlayer get(int index) {
+                if (index >= seatedCount) {
+                    throw new IndexOutOfBoundsException("Seat " + index + " of " + seatedCount);
+                }
+                return (BlackjackPlayer) PlayerRoster.this.players.get(seats[index]);
+            }
+            
+            @Override
+            public int size() {
+                return seatedCount;
+            }
+        };
+    }
+    
+    /**
+     * Registers a new player.
+     * 
+     * @param player the player, whose name must not already be registered
+     * @return the player's id
+     */
+    public int register(BlackjackPlayer player) {
+        if (idsByName.containsKey(player.getName())) {
+            throw new IllegalArgumentException("A player named " + player.getName() + " is already registered");
+        }
+        int id = players.size();
+        players.add(player);
+        idsByName.put(player.getName(), id);
+        player.setId(id);
+        player.setPointsListener(this);
+        leaderboard.refresh(id);
+        return id;
+    }
+    
+    /**
+     * Checks whether a name is already registered.
+     * 
+     * @param name the player name
+     * @return true if a player has that name
+     */
+    public boolean isRegistered(String name) {
+        return idsByName.containsKey(name);
+    }
+    
+    /**
+     * Gets a player by id.
+     * 
+     * @param id the player id
+     * @return the player
+     */
+    public BlackjackPlayer getPlayer(int id) {
+        return (BlackjackPlayer) players.get(id);
+    }
+    
+    /**
+     * Gets a player by name.
+     * 
+     * @param name the player name
+     * @return the player, or null if no player has that name
+     */
+    public BlackjackPlayer getPlayer(String name) {
+        Integer id = idsByName.get(name);
+        return id == null ? null : getPlayer(id);
+    }
+    
+    /**
+     * Gets the number of registered players.
+     * 
+     * @return the number of players
+     */
+    public int size() {
+        return players.size();
+    }
+    
+    /**
+     * Seats a registered player in the next free seat.
+     * 
+     * @param id the player id
+     * @return the seat index, or -1 if the table is full or the player is already seated
+     */
+    public int assignSeat(int id) {
+        if (seatedCount == seats.length || getSeat(id) >= 0) {
+            return -1;
+        }
+        seats[seatedCount] = id;
+        return seatedCount++;
+    }
+    
+    /**
+     * Removes a player from their seat; later seats move up one place.
+     * 
+     * @param id the player id
+     * @return true if the player was seated
+     */
+    public boolean releaseSeat(int id) {
+        int seat = getSeat(id);
+        if (seat < 0) {
+            return false;
+        }
+        System.arraycopy(seats, seat + 1, seats, seat, seatedCount - seat - 1);
+        seatedCount--;
+        return true;
+    }
+    
+    /**
+     * Gets the seat of a player.
+     * 
+     * @param id the player id
+     * @return the seat index, or -1 if the player is not seated
+     */
+    public int getSeat(int id) {
+        for (int i = 0; i < seatedCount; i++) {
+            if (seats[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Gets a live view of the seated players in seat order.
+     * 
+     * @return the seated players
+     */
+    public List<BlackjackPlayer> getSeatedPlayers() {
+        return seatedView;
+    }
+    
+    /**
+     * Gets the number of seats at the table.
+     * 
+     * @return the number of seats
+     */
+    public int getMaxSeats() {
+        return seats.length;
+    }
+    
+    /**
+     * Gets the players with the most points.
+     * 
+     * @param k the number of players to return
+     * @return up to k players, highest points first (ties by registration order)
+     */
+    public List<BlackjackPlayer> getTopPlayers(int k) {
+        int[] ids = leaderboard.top(k);
+        List<BlackjackPlayer> top = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            top.add(getPlayer(ids[i]));
+        }
+        return top;
+    }
+    
+    /**
+     * Gets a player's leaderboard position.
+     * 
+     * @param id the player id
+     * @return the rank, 1 for the most points (ties by registration order), or -1 if not registered
+     */
+    public int getRank(int id) {
+        return leaderboard.rankOf(id);
+    }
+    
+    /**
+     * Gets the leaderboard, which can be queried from any thread.
+     * 
+     * @return the leaderboard
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+    
+    /**
+     * Moves a player on the leaderboard after their points change.
+     */
+    @Override
+    public void pointsChanged(BlackjackPlayer player, int oldPoints) {
+        leaderboard.refresh(player.getId());
+    }
+}
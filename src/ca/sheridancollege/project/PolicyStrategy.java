@@ -0,0 +1,137 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * A strategy driven by a table of hit thresholds and a bet ramp.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A parametrized strategy: the player hits while the hand value is below a
+ * threshold chosen by the dealer's up-card (separately for hard and soft hands),
+ * and bets according to a ramp indexed by the true count.
+ */
+public class PolicyStrategy implements Strategy {
+    
+    // Dealer up-card values run from 2 to 11 (Ace)
+    public static final int MIN_UP_VALUE = 2;
+    public static final int UP_VALUES = 10;
+    
+    private final int[] hardHitBelow;   // Hit a hard hand while its value is below this
+    private final int[] softHitBelow;   // Hit a soft hand while its value is below this
+    private final int[] betRamp;        // Bet for true count 0 (or less), 1, 2, ...
+    
+    /**
+     * Constructor to create a strategy from its tables.
+     * 
+     * @param hardHitBelow hard hand thresholds, indexed by dealer up-card value minus 2
+     * @param softHitBelow soft hand thresholds, indexed by dealer up-card value minus 2
+     * @param betRamp bets indexed by true count, starting at 0
+     */
+    public PolicyStrategy(int[] hardHitBelow, int[] softHitBelow, int[] betRamp) {
+        if (hardHitBelow.length != UP_VALUES || softHitBelow.length != UP_VALUES || betRamp.length == 0) {
+            throw new IllegalArgumentException("Thresholds need " + UP_VALUES + " entries and the ramp at least one");
+        }
+        this.hardHitBelow = hardHitBelow.clone();
+        this.softHitBelow = softHitBelow.clone();
+        this.betRamp = betRamp.clone();
+    }
+    
+    /**
+     * Creates a strategy close to basic strategy (hit/stand only) with a flat bet.
+     * 
+     * @param bet the bet for every round
+     * @return the strategy
+     */
+    public static PolicyStrategy basic(int bet) {
+        return new PolicyStrategy(
+                new int[] {13, 13, 12, 12, 12, 17, 17, 17, 17, 17},
+                new int[] {18, 18, 18, 18, 18, 18, 18, 19, 19, 19},
+                new int[] {bet});
+    }
+    
+    /**
+     * Creates a copy of this strategy with a different bet ramp.
+     * 
+     * @param betRamp bets indexed by true count, starting at 0
+     * @return the new strategy
+     */
+    public PolicyStrategy withBetRamp(int[] betRamp) {
+        return new PolicyStrategy(hardHitBelow, softHitBelow, betRamp);
+    }
+    
+    @Override
+    public int getBet(BlackjackPlayer player, int trueCount) {
+        int index = Math.max(0, Math.min(trueCount, betRamp.length - 1));
+        return betRamp[index];
+    }
+    
+    @Override
+    public boolean shouldHit(Hand hand, int dealerUpValue) {
+        int index = Math.max(0, Math.min(dealerUpValue - MIN_UP_VALUE, UP_VALUES - 1));
+        int threshold = hand.isSoft() ? softHitBelow[index] : hardHitBelow[index];
+        return hand.getValue() < threshold;
+    }
+    
+    /**
+     * Creates a neighbouring strategy by nudging one threshold or one ramp step.
+     * 
+     * @param random the random number source
+     * @return a new strategy differing in one entry
+     */
+    public PolicyStrategy mutate(Random random) {
+        int[] hard = hardHitBelow.clone();
+        int[] soft = softHitBelow.clone();
+        int[] ramp = betRamp.clone();
+        int step = random.nextBoolean() ? 1 : -1;
+        
+        switch (random.nextInt(3)) {
+            case 0:
+                int h = random.nextInt(UP_VALUES);
+                hard[h] = Math.max(4, Math.min(21, hard[h] + step));
+                break;
+            case 1:
+                int s = random.nextInt(UP_VALUES);
+                soft[s] = Math.max(12, Math.min(21, soft[s] + step));
+                break;
+            default:
+                int r = random.nextInt(ramp.length);
+                ramp[r] = Math.max(1, ramp[r] + step * Math.max(1, ramp[r] / 2));
+                break;
+        }
+        return new PolicyStrategy(hard, soft, ramp);
+    }
+    
+    /**
+     * Returns the policy as a printable table.
+     * 
+     * @return rows of thresholds by dealer up-card, followed by the bet ramp
+     */
+    public String toTable() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Dealer up:");
+        for (int i = 0; i < UP_VALUES; i++) {
+            sb.append(String.format("%4s", i == UP_VALUES - 1 ? "A" : String.valueOf(i + MIN_UP_VALUE)));
+        }
+        sb.append("\nHard hit <");
+        for (int value : hardHitBelow) {
+            sb.append(String.format("%4d", value));
+        }
+        sb.append("\nSoft hit <");
+        for (int value : softHitBelow) {
+            sb.append(String.format("%4d", value));
+        }
+        sb.append("\nBet ramp (true count 0+): ").append(Arrays.toString(betRamp));
+        return sb.toString();
+    }
+    
+    @Override
+    public String toString() {
+        return "Hard" + Arrays.toString(hardHitBelow) + " Soft" + Arrays.toString(softHitBelow)
+                + " Ramp" + Arrays.toString(betRamp);
+    }
+}
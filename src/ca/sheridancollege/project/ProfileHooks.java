@@ -0,0 +1,127 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * The points where the game engine reports to a profiler.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+/**
+ * Lets TableSimulator, BlackjackGame, Deck.draw() and Hand.getValue() report
+ * their phases, draws and hand scoring to SimulationProfiler without depending
+ * on jdk.jfr, so the engine still compiles and runs on Java 8.
+ * 
+ * The hooks are off unless a profiler is installed. SimulationProfiler.profile()
+ * installs one for the length of its run; starting any game with
+ * -Dblackjack.jfr=true installs one for the life of the JVM, to be recorded with
+ * -XX:StartFlightRecording or JDK Mission Control. On a JVM without jdk.jfr
+ * that setting is reported and ignored, and the hooks stay off. While off, each
+ * hook only reads one static field.
+ */
+final class ProfileHooks {
+    
+    /** Turns the hooks on for the life of the JVM when set to true. */
+    static final String PROPERTY = "blackjack.jfr";
+    
+    private static final String JFR_PROFILER = "ca.sheridancollege.project.SimulationProfiler$JfrProfiler";
+    
+    // Read on every draw and hand evaluation, so kept as a plain static field
+    private static volatile Profiler profiler = fromProperty();
+    
+    private ProfileHooks() {
+    }
+    
+    /**
+     * A phase of a round being timed.
+     */
+    interface Span {
+        void commit();
+    }
+    
+    /**
+     * What the installed profiler does at each hook.
+     */
+    interface Profiler {
+        Span beginPhase(String phase);
+        
+        Card draw(Deck deck);
+        
+        int value(Hand hand);
+    }
+    
+    /**
+     * Installs a profiler, or turns the hooks off.
+     * 
+     * @param newProfiler the profiler, or null for none
+     * @return the profiler it replaced, or null
+     */
+    static Profiler install(Profiler newProfiler) {
+        Profiler previous = profiler;
+        profiler = newProfiler;
+        return previous;
+    }
+    
+    /**
+     * Starts timing a phase of a round.
+     * 
+     * @param phase the phase name (reset, betting, deal, players, dealer, settle)
+     * @return the span to pass to end, or null when no profiler is installed
+     */
+    static Span beginPhase(String phase) {
+        Profiler current = profiler;
+        return current == null ? null : current.beginPhase(phase);
+    }
+    
+    /**
+     * Finishes timing a phase of a round.
+     * 
+     * @param span the span from beginPhase, or null
+     */
+    static void end(Span span) {
+        if (span != null) {
+            span.commit();
+        }
+    }
+    
+    /**
+     * Draws the top card, through the profiler when one is installed.
+     * 
+     * @param deck the deck
+     * @return the card, or null if the deck is empty
+     */
+    static Card draw(Deck deck) {
+        Profiler current = profiler;
+        return current == null ? deck.drawTop() : current.draw(deck);
+    }
+    
+    /**
+     * Scores a hand, through the profiler when one is installed.
+     * 
+     * @param hand the hand
+     * @return the total value of the hand
+     */
+    static int value(Hand hand) {
+        Profiler current = profiler;
+        return current == null ? hand.computeValue() : current.value(hand);
+    }
+    
+    /**
+     * Loads the flight recorder profiler if -Dblackjack.jfr=true is set.
+     * It is loaded by name, so this class never links against jdk.jfr.
+     * 
+     * @return the profiler, or null if the setting is off or jdk.jfr is missing
+     */
+    private static Profiler fromProperty() {
+        if (!Boolean.getBoolean(PROPERTY)) {
+            return null;
+        }
+        try {
+            return (Profiler) Class.forName(JFR_PROFILER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("Error: -D" + PROPERTY + " needs Java Flight Recorder (JDK 11, or Java 8u262 "
+                    + "or later), so profiling events are off");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Checks that a player's saved points survive the game and the store closing.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Plays scripted games against a ProfileStore and reopens the store between
+ * them, as a restarted server would. A player with saved points joins and
+ * quits in the first betting round; after the restart they must have 0 points
+ * saved and start their next game with the starting points, not their old total.
+ */
+public class ProfileRestartCheck {
+    
+    private static final String NAME = "Ann";
+    private static final int SAVED_POINTS = 150;
+    
+    /**
+     * Plays a one-player game that quits at the first bet.
+     * 
+     * @param store the profile store
+     * @return everything the game printed
+     */
+    private static String playAndQuit(ProfileStore store) {
+        String script = "1\n" + NAME + "\n0\n";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BlackjackGame game = new BlackjackGame(
+                new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(bytes, true), 0);
+        game.setProfileStore(store);
+        game.play();
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Runs the check in a temporary profile log.
+     * 
+     * @param args not used
+     * @throws IOException if the profile log cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path log = Files.createTempFile("bj-profiles", ".log");
+        try {
+            try (ProfileStore store = new ProfileStore(log)) {
+                store.recordSettlement(NAME, SAVED_POINTS, RoundResult.WIN_DEALER_BUSTED, 50);
+            }
+            
+            String first;
+            try (ProfileStore store = new ProfileStore(log)) {
+                first = playAndQuit(store);
+            }
+            String second;
+            int savedAfterQuit;
+            try (ProfileStore store = new ProfileStore(log)) {
+                savedAfterQuit = store.getProfile(NAME).getPoints();
+                second = playAndQuit(store);
+            }
+            
+            boolean restored = first.contains("You have " + SAVED_POINTS + " points.");
+            boolean forfeited = savedAfterQuit == 0 && !second.contains("Welcome back, " + NAME + "! You have");
+            System.out.println(NAME + " joined with " + SAVED_POINTS + " saved points: "
+                    + (restored ? "restored" : "NOT restored"));
+            System.out.println("Saved points after quitting and restarting: " + savedAfterQuit);
+            System.out.println("Next game starts with " + BlackjackPlayer.STARTING_POINTS + ": "
+                    + (forfeited ? "yes" : "no"));
+            if (!restored || !forfeited) {
+                System.out.println("Error: A quit did not survive the restart");
+            }
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+}
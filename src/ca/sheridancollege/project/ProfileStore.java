@@ -0,0 +1,379 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Persistent player profiles with write-behind batching.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Stores player profiles (name, points and lifetime stats) in an append-only log file.
+ * 
+ * Settlements only update the in-memory profile and mark it dirty. A background
+ * flusher writes one snapshot per dirty profile and forces the log to disk once per
+ * batch, so thousands of settlements per second cost a few disk writes. On open,
+ * the log is replayed (the last snapshot for each name wins) and any torn record
+ * left by a crash is cut off.
+ * 
+ * Each record is: length (int), CRC32 of the payload (int), payload.
+ */
+public class ProfileStore implements AutoCloseable {
+    
+    private static final long DEFAULT_FLUSH_MILLIS = 200;
+    
+    private final Path logFile;
+    private final FileChannel channel;
+    private final ConcurrentHashMap<String, Profile> profiles;
+    private final Set<String> dirty;
+    private final ScheduledExecutorService flusher;
+    private final ByteArrayOutputStream batchBytes;
+    private long recordsWritten;
+    private long flushes;
+    
+    /**
+     * Opens a store, recovering profiles from the log if it exists, and
+     * flushes every 200 milliseconds.
+     * 
+     * @param logFile the log file
+     * @throws IOException if the log cannot be read or opened
+     */
+    public ProfileStore(Path logFile) throws IOException {
+        this(logFile, DEFAULT_FLUSH_MILLIS);
+    }
+    
+    /**
+     * Opens a store, recovering profiles from the log if it exists.
+     * 
+     * @param logFile the log file
+     * @param flushMillis how often dirty profiles are written, in milliseconds
+     * @throws IOException if the log cannot be read or opened
+     */
+    public ProfileStore(Path logFile, long flushMillis) throws IOException {
+        this.logFile = logFile;
+        this.profiles = new ConcurrentHashMap<>();
+        this.dirty = ConcurrentHashMap.newKeySet();
+        this.batchBytes = new ByteArrayOutputStream();
+        this.channel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+        
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "profile-store-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (IOException e) {
+                System.err.println("Error: Could not write player profiles: " + e.getMessage());
+            }
+        }, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Gets a player's profile.
+     * 
+     * @param name the player name
+     * @return the profile, or null if the player has never been saved
+     */
+    public Profile getProfile(String name) {
+        return profiles.get(name);
+    }
+    
+    /**
+     * Records a settled bet. Only memory is touched here; the profile is
+     * written by the next flush.
+     * 
+     * @param name the player name
+     * @param pointsAfter the player's points after the settlement
+     * @param result the result of the round
+     * @param pointsChange the points won or lost
+     */
+    public void recordSettlement(String name, int pointsAfter, RoundResult result, int pointsChange) {
+        Profile profile = profiles.computeIfAbsent(name, Profile::new);
+        synchronized (profile) {
+            profile.points = pointsAfter;
+            profile.handsPlayed++;
+            profile.netPoints += pointsChange;
+            if (pointsChange > 0) {
+                profile.wins++;
+            } else if (pointsChange < 0) {
+                profile.losses++;
+            } else {
+                profile.pushes++;
+            }
+            if (result == RoundResult.WIN_BLACKJACK) {
+                profile.blackjacks++;
+            }
+        }
+        dirty.add(name);
+    }
+    
+    /**
+     * Records a player's points outside a settlement, such as a player quitting
+     * and giving up their points. The hand statistics are left as they are.
+     * 
+     * @param name the player name
+     * @param points the player's points now
+     */
+    public void recordPoints(String name, int points) {
+        Profile profile = profiles.computeIfAbsent(name, Profile::new);
+        synchronized (profile) {
+            profile.points = points;
+        }
+        dirty.add(name);
+    }
+    
+    /**
+     * Writes every dirty profile to the log in one write and forces it to disk.
+     * 
+     * @throws IOException if the log cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        batchBytes.reset();
+        DataOutputStream out = new DataOutputStream(batchBytes);
+        // Names are taken out of the dirty set before their snapshot is written, so a
+        // settlement during the flush marks its profile dirty again for the next one
+        List<String> written = new ArrayList<>();
+        Iterator<String> names = dirty.iterator();
+        while (names.hasNext()) {
+            String name = names.next();
+            names.remove();
+            written.add(name);
+            writeRecord(out, profiles.get(name));
+        }
+        
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(batchBytes.toByteArray());
+            channel.position(channel.size());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            dirty.addAll(written);      // Not durable, so write these profiles again next time
+            throw e;
+        }
+        recordsWritten += written.size();
+        flushes++;
+    }
+    
+    /**
+     * Rewrites the log with one snapshot per profile, replacing the old log atomically.
+     * 
+     * @throws IOException if the log cannot be rewritten
+     */
+    public synchronized void compact() throws IOException {
+        flush();
+        Path temp = logFile.resolveSibling(logFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+            for (Profile profile : profiles.values()) {
+                writeRecord(out, profile);
+            }
+        }
+        try (FileChannel tempChannel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            tempChannel.force(true);
+        }
+        Files.move(temp, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Stops the flusher, writes any remaining changes and compacts the log.
+     * 
+     * @throws IOException if the log cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+        compact();
+    }
+    
+    /**
+     * Gets the number of profile records written since the store was opened.
+     * 
+     * @return the number of records
+     */
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+    
+    /**
+     * Gets the number of batched writes (and disk syncs) since the store was opened.
+     * 
+     * @return the number of flushes
+     */
+    public long getFlushes() {
+        return flushes;
+    }
+    
+    /**
+     * Gets a snapshot of every stored profile.
+     * 
+     * @return the profiles
+     */
+    public List<Profile> getProfiles() {
+        return new ArrayList<>(profiles.values());
+    }
+    
+    /**
+     * Replays the log into memory and cuts off any torn or corrupt tail.
+     */
+    private void recover() throws IOException {
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(8);
+        long position = 0;
+        CRC32 crc = new CRC32();
+        
+        while (position + 8 <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || position + 8 + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            channel.read(payload, position + 8);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            Profile profile = readPayload(payload.array());
+            profiles.put(profile.name, profile);
+            position += 8 + length;
+        }
+        
+        if (position < size) {
+            System.err.println("Warning: Discarding " + (size - position) + " bytes of incomplete profile log");
+            channel.truncate(position);
+            channel.force(true);
+        }
+    }
+    
+    private static void writeRecord(DataOutputStream out, Profile profile) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream payload = new DataOutputStream(bytes);
+        synchronized (profile) {
+            payload.writeUTF(profile.name);
+            payload.writeInt(profile.points);
+            payload.writeLong(profile.handsPlayed);
+            payload.writeLong(profile.wins);
+            payload.writeLong(profile.losses);
+            payload.writeLong(profile.pushes);
+            payload.writeLong(profile.blackjacks);
+            payload.writeLong(profile.netPoints);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray(), 0, bytes.size());
+        out.writeInt(bytes.size());
+        out.writeInt((int) crc.getValue());
+        bytes.writeTo(out);
+    }
+    
+    private static Profile readPayload(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        Profile profile = new Profile(in.readUTF());
+        profile.points = in.readInt();
+        profile.handsPlayed = in.readLong();
+        profile.wins = in.readLong();
+        profile.losses = in.readLong();
+        profile.pushes = in.readLong();
+        profile.blackjacks = in.readLong();
+        profile.netPoints = in.readLong();
+        return profile;
+    }
+    
+    /**
+     * A player's saved points and lifetime statistics.
+     */
+    public static class Profile {
+        private final String name;
+        private int points;
+        private long handsPlayed;
+        private long wins;
+        private long losses;
+        private long pushes;
+        private long blackjacks;
+        private long netPoints;
+        
+        Profile(String name) {
+            this.name = name;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public synchronized int getPoints() {
+            return points;
+        }
+        
+        public synchronized long getHandsPlayed() {
+            return handsPlayed;
+        }
+        
+        public synchronized long getWins() {
+            return wins;
+        }
+        
+        public synchronized long getLosses() {
+            return losses;
+        }
+        
+        public synchronized long getPushes() {
+            return pushes;
+        }
+        
+        public synchronized long getBlackjacks() {
+            return blackjacks;
+        }
+        
+        public synchronized long getNetPoints() {
+            return netPoints;
+        }
+        
+        @Override
+        public synchronized String toString() {
+            return name + ": " + points + " points, " + handsPlayed + " hands (" + wins + "W/"
+                    + losses + "L/" + pushes + "P, " + blackjacks + " blackjacks), net " + netPoints;
+        }
+    }
+}
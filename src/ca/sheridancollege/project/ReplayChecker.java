@@ -0,0 +1,351 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Records and compares per-round fingerprints of seeded simulation runs.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * Checks that a change to Deck, Hand or the settlement rules leaves seeded
+ * simulations unchanged. A reference build records a fingerprint of every round
+ * (the cards dealt to each hand in order, which implies every hit and stand,
+ * plus each seat's bet, points change and balance); a candidate build replays
+ * the same seed and compares its fingerprints as it goes, reporting the first
+ * round that differs.
+ * 
+ * A fingerprint is a few multiply-rotate steps per card and 4 bytes of output,
+ * so it can stay on for runs of 100 million rounds. Folding several rounds into
+ * each fingerprint makes the file smaller at the cost of reporting a range of
+ * rounds instead of a single one.
+ */
+public class ReplayChecker implements TableSimulator.RoundListener {
+    
+    private static final int MAGIC = 0x424A5250;           // "BJRP"
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+    
+    // Bankroll large enough that no seat ever stops betting during a run
+    private static final int REPLAY_BANKROLL = 1_000_000_000;
+    
+    private final DataOutputStream record;      // Null when checking
+    private final DataInputStream reference;    // Null when recording
+    private final int interval;                 // Rounds folded into each fingerprint
+    private long blockHash;
+    private int blockRounds;
+    private int blockStartRound;
+    private long runHash;
+    private int divergedFrom = -1;              // First round of the diverging block
+    private int divergedTo = -1;
+    
+    /**
+     * Constructor used by record() and check().
+     * 
+     * @param record the stream to write fingerprints to, or null
+     * @param reference the stream to compare fingerprints with, or null
+     * @param interval the rounds folded into each fingerprint
+     */
+    private ReplayChecker(DataOutputStream record, DataInputStream reference, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Fingerprint interval must be at least 1");
+        }
+        this.record = record;
+        this.reference = reference;
+        this.interval = interval;
+    }
+    
+    /**
+     * Creates a checker that writes the fingerprints of a run to a stream.
+     * 
+     * @param out the stream to write to
+     * @param interval the rounds folded into each fingerprint
+     * @return the checker, to be added as a round listener
+     */
+    public static ReplayChecker record(DataOutputStream out, int interval) {
+        return new ReplayChecker(out, null, interval);
+    }
+    
+    /**
+     * Creates a checker that compares a run against recorded fingerprints.
+     * 
+     * @param in the recorded fingerprints
+     * @param interval the rounds folded into each fingerprint, as recorded
+     * @return the checker, to be added as a round listener
+     */
+    public static ReplayChecker check(DataInputStream in, int interval) {
+        return new ReplayChecker(null, in, interval);
+    }
+    
+    @Override
+    public void roundPlayed(TableSimulator table) {
+        if (blockRounds == 0) {
+            blockStartRound = table.getRoundNumber();
+        }
+        long hash = fingerprint(table);
+        blockHash = mix(blockHash, (int) (hash ^ (hash >>> 32)));
+        runHash = mix(runHash, (int) hash);
+        if (++blockRounds == interval) {
+            endBlock(table.getRoundNumber());
+        }
+    }
+    
+    /**
+     * Writes or compares the fingerprint of the last, partly filled block.
+     * Call once after the last round of a run.
+     * 
+     * @param lastRound the number of the last round played
+     */
+    public void finish(int lastRound) {
+        if (blockRounds > 0) {
+            endBlock(lastRound);
+        }
+        if (reference != null && !hasDiverged()) {
+            try {
+                if (reference.read() != -1) {
+                    // The reference run went on longer than this one
+                    divergedFrom = lastRound + 1;
+                    divergedTo = lastRound + 1;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+    
+    /**
+     * Writes or compares the fingerprint of the current block and starts a new one.
+     * 
+     * @param lastRound the number of the block's last round
+     */
+    private void endBlock(int lastRound) {
+        int fingerprint = (int) (blockHash ^ (blockHash >>> 32));
+        blockHash = 0;
+        blockRounds = 0;
+        try {
+            if (record != null) {
+                record.writeInt(fingerprint);
+            } else if (!hasDiverged()) {
+                int expected;
+                try {
+                    expected = reference.readInt();
+                } catch (EOFException e) {
+                    expected = ~fingerprint;     // The reference run ended sooner
+                }
+                if (expected != fingerprint) {
+                    divergedFrom = blockStartRound;
+                    divergedTo = lastRound;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Computes the fingerprint of the round just played at a table.
+     * 
+     * @param table the table
+     * @return the 64-bit fingerprint
+     */
+    public static long fingerprint(TableSimulator table) {
+        long hash = mix(0, table.getRoundNumber());
+        hash = mixHand(hash, table.getDealer().getHand());
+        hash = mix(hash, table.getDealerFinalValue());
+        ArrayList<BlackjackPlayer> players = table.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            BlackjackPlayer player = players.get(i);
+            hash = mix(hash, player.getCurrentBet());
+            hash = mixHand(hash, player.getHand());
+            hash = mix(hash, player.isStanding() ? 1 : 0);
+            hash = mix(hash, table.getLastPointsChange(i));
+            hash = mix(hash, player.getPoints());
+        }
+        return hash;
+    }
+    
+    /**
+     * Adds a hand's card count and cards, in the order they were dealt, to a hash.
+     * 
+     * @param hash the hash so far
+     * @param hand the hand
+     * @return the new hash
+     */
+    private static long mixHand(long hash, Hand hand) {
+        ArrayList<Card> cards = hand.getCards();
+        hash = mix(hash, cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            hash = mix(hash, ((BlackjackCard) cards.get(i)).getIndex());
+        }
+        return hash;
+    }
+    
+    /**
+     * Adds one value to a hash.
+     * 
+     * @param hash the hash so far
+     * @param value the value
+     * @return the new hash
+     */
+    private static long mix(long hash, int value) {
+        return Long.rotateLeft((hash ^ value) * MULTIPLIER, 29);
+    }
+    
+    /**
+     * Checks whether the run has differed from the reference.
+     * 
+     * @return true if a fingerprint did not match
+     */
+    public boolean hasDiverged() {
+        return divergedFrom >= 0;
+    }
+    
+    /**
+     * Gets the first round of the first block that did not match.
+     * 
+     * @return the round number, or -1 if the runs match so far
+     */
+    public int getDivergedFrom() {
+        return divergedFrom;
+    }
+    
+    /**
+     * Gets the last round of the first block that did not match.
+     * Equal to getDivergedFrom() when every round has its own fingerprint.
+     * 
+     * @return the round number, or -1 if the runs match so far
+     */
+    public int getDivergedTo() {
+        return divergedTo;
+    }
+    
+    /**
+     * Gets a hash of every round played so far, for a quick whole-run comparison.
+     * 
+     * @return the run hash
+     */
+    public long getRunHash() {
+        return runHash;
+    }
+    
+    /**
+     * Creates the table that record and check runs are played on.
+     * Seats alternate between a flat basic-strategy bettor and a card counter,
+     * so both the bet ramp and the true count are covered by the fingerprints.
+     * 
+     * @param seed the seed
+     * @param decks the number of decks in the shoe
+     * @param seats the number of seats
+     * @return the table
+     */
+    static TableSimulator newTable(long seed, int decks, int seats) {
+        TableSimulator table = new TableSimulator(decks, seed);
+        for (int i = 0; i < seats; i++) {
+            Strategy strategy = i % 2 == 0
+                    ? PolicyStrategy.basic(10)
+                    : PolicyStrategy.basic(5).withBetRamp(new int[] {5, 10, 20, 30, 40});
+            table.addPlayer(new BlackjackPlayer("Seat " + (i + 1), REPLAY_BANKROLL), strategy);
+        }
+        return table;
+    }
+    
+    /**
+     * Plays a run on a table, stopping early once a check has diverged.
+     * 
+     * @param table the table
+     * @param checker the checker listening to the table
+     * @param rounds the number of rounds to play
+     */
+    private static void run(TableSimulator table, ReplayChecker checker, long rounds) {
+        table.addRoundListener(checker);
+        for (long r = 0; r < rounds && !checker.hasDiverged(); r++) {
+            table.playRound();
+        }
+        checker.finish(table.getRoundNumber());
+    }
+    
+    /**
+     * Records a reference run or checks this build against one.
+     * 
+     * Usage: record FILE [rounds] [seed] [decks] [seats] [interval]
+     *        check FILE
+     * 
+     * @param args the mode, file and run settings
+     * @throws IOException if the fingerprint file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("record") || args[0].equals("check"))) {
+            System.out.println("Usage: ReplayChecker record FILE [rounds] [seed] [decks] [seats] [interval]");
+            System.out.println("       ReplayChecker check FILE");
+            return;
+        }
+        Path file = Paths.get(args[1]);
+        
+        if (args[0].equals("record")) {
+            long rounds = args.length > 2 ? Long.parseLong(args[2]) : 1_000_000L;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : 17796L;
+            int decks = args.length > 4 ? Integer.parseInt(args[4]) : 6;
+            int seats = args.length > 5 ? Integer.parseInt(args[5]) : 3;
+            int interval = args.length > 6 ? Integer.parseInt(args[6]) : 1;
+            
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeLong(rounds);
+                out.writeLong(seed);
+                out.writeInt(decks);
+                out.writeInt(seats);
+                out.writeInt(interval);
+                
+                TableSimulator table = newTable(seed, decks, seats);
+                ReplayChecker checker = record(out, interval);
+                long start = System.nanoTime();
+                run(table, checker, rounds);
+                System.out.printf("Recorded %d rounds in %.1f s, run hash %016x%n",
+                        rounds, (System.nanoTime() - start) / 1e9, checker.getRunHash());
+            }
+            return;
+        }
+        
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                System.out.println("Error: " + file + " is not a replay fingerprint file");
+                return;
+            }
+            long rounds = in.readLong();
+            long seed = in.readLong();
+            int decks = in.readInt();
+            int seats = in.readInt();
+            int interval = in.readInt();
+            
+            TableSimulator table = newTable(seed, decks, seats);
+            ReplayChecker checker = check(in, interval);
+            long start = System.nanoTime();
+            run(table, checker, rounds);
+            
+            if (!checker.hasDiverged()) {
+                System.out.printf("All %d rounds match (seed %d, %d decks, %d seats) in %.1f s%n",
+                        rounds, seed, decks, seats, (System.nanoTime() - start) / 1e9);
+            } else if (checker.getDivergedFrom() == checker.getDivergedTo()) {
+                System.out.println("Runs diverge at round " + checker.getDivergedFrom());
+                System.exit(1);
+            } else {
+                System.out.println("Runs diverge between rounds " + checker.getDivergedFrom()
+                        + " and " + checker.getDivergedTo());
+                System.exit(1);
+            }
+        }
+    }
+}
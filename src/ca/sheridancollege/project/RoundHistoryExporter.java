@@ -0,0 +1,492 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Streams the rounds of a table to a compressed columnar file.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Records every seat's result of every round at a table in a columnar file for
+ * offline analysis. It is a TableSimulator.RoundListener, so it streams straight
+ * from the game loop: rows are gathered into one int array per column and
+ * written out as a block every BLOCK_ROWS rows, so memory stays bounded.
+ * 
+ * Within a block each column is encoded on its own with whichever of three
+ * encodings is smallest for it (deltas for the round number, runs for the
+ * dealer's total repeated across seats, a dictionary for bets and points
+ * changes that take only a few values) and then compressed with Deflater.
+ * Every column chunk is prefixed with its lengths, so the Reader can skip the
+ * columns it does not need without reading or inflating them.
+ * 
+ * File layout:
+ * <pre>
+ * "BJCX" version:short seats:byte name:UTF...
+ * block: rows:int, then per column: encoding:byte rawLength:int length:int deflated bytes
+ * end:   rows = 0
+ * </pre>
+ */
+public class RoundHistoryExporter implements TableSimulator.RoundListener, Closeable {
+    
+    /**
+     * The columns, in the order they are stored in a block.
+     */
+    public enum Column { ROUND, PLAYER, BET, HAND_TOTAL, DEALER_TOTAL, RESULT, POINTS_CHANGE }
+    
+    private static final Column[] COLUMNS = Column.values();
+    private static final int MAGIC = 0x424A4358;    // "BJCX"
+    private static final short VERSION = 1;
+    public static final int BLOCK_ROWS = 1 << 16;
+    
+    // How a column chunk is encoded before it is deflated
+    private static final byte DELTA = 0;            // Zigzag varint differences from the previous value
+    private static final byte RUN_LENGTH = 1;       // Pairs of zigzag varint value and varint run length
+    private static final byte DICTIONARY = 2;       // Up to 256 distinct values, then one byte per row
+    
+    private final DataOutputStream out;
+    private final int[][] columns;
+    private final Deflater deflater;
+    private final ByteArrayOutputStream encoded;
+    private byte[] deflated;
+    private int rows;
+    private long rowsWritten;
+    private boolean headerWritten;
+    
+    /**
+     * Constructor to create an exporter writing to a new file.
+     * 
+     * @param output the file to write
+     * @throws IOException if the file cannot be created
+     */
+    public RoundHistoryExporter(Path output) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output), 1 << 16));
+        this.columns = new int[COLUMNS.length][BLOCK_ROWS];
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        this.encoded = new ByteArrayOutputStream(5 * BLOCK_ROWS);
+        this.deflated = new byte[1 << 16];
+    }
+    
+    /**
+     * Adds a row for every seat that bet in the round just played.
+     * 
+     * @param table the table that played the round
+     * @throws UncheckedIOException if a full block cannot be written
+     */
+    @Override
+    public void roundPlayed(TableSimulator table) {
+        ArrayList<BlackjackPlayer> players = table.getPlayers();
+        try {
+            if (!headerWritten) {
+                writeHeader(players);
+            }
+            for (int seat = 0; seat < players.size(); seat++) {
+                RoundResult result = table.getLastResult(seat);
+                if (result == null) {
+                    continue;
+                }
+                BlackjackPlayer player = players.get(seat);
+                columns[Column.ROUND.ordinal()][rows] = table.getRoundNumber();
+                columns[Column.PLAYER.ordinal()][rows] = seat;
+                columns[Column.BET.ordinal()][rows] = player.getCurrentBet();
+                columns[Column.HAND_TOTAL.ordinal()][rows] = player.getHandValue();
+                columns[Column.DEALER_TOTAL.ordinal()][rows] = table.getDealerFinalValue();
+                columns[Column.RESULT.ordinal()][rows] = result.ordinal();
+                columns[Column.POINTS_CHANGE.ordinal()][rows] = table.getLastPointsChange(seat);
+                if (++rows == BLOCK_ROWS) {
+                    writeBlock();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Gets the number of rows recorded so far.
+     * 
+     * @return the number of rows
+     */
+    public long getRowCount() {
+        return rowsWritten + rows;
+    }
+    
+    /**
+     * Writes the last partial block and the end marker, and closes the file.
+     * 
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!headerWritten) {
+                writeHeader(new ArrayList<>());
+            }
+            if (rows > 0) {
+                writeBlock();
+            }
+            out.writeInt(0);
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+    
+    private void writeHeader(List<BlackjackPlayer> players) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(players.size());
+        for (int i = 0; i < players.size(); i++) {
+            out.writeUTF(players.get(i).getName());
+        }
+        headerWritten = true;
+    }
+    
+    /**
+     * Encodes, compresses and writes the rows gathered so far.
+     */
+    private void writeBlock() throws IOException {
+        out.writeInt(rows);
+        for (int c = 0; c < COLUMNS.length; c++) {
+            byte encoding = encode(columns[c], rows, encoded);
+            deflater.reset();
+            deflater.setInput(encoded.toByteArray());
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == deflated.length) {
+                    deflated = Arrays.copyOf(deflated, 2 * deflated.length);
+                }
+                length += deflater.deflate(deflated, length, deflated.length - length);
+            }
+            out.writeByte(encoding);
+            out.writeInt(encoded.size());
+            out.writeInt(length);
+            out.write(deflated, 0, length);
+        }
+        rowsWritten += rows;
+        rows = 0;
+    }
+    
+    /**
+     * Encodes a column chunk with whichever encoding gives the fewest bytes.
+     * 
+     * @param values the column
+     * @param count the number of rows
+     * @param target receives the encoded bytes
+     * @return the encoding used
+     */
+    static byte encode(int[] values, int count, ByteArrayOutputStream target) {
+        int deltaSize = 0;
+        int runSize = 0;
+        int previous = 0;
+        int[] dictionary = new int[256];
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            int value = values[i];
+            deltaSize += varintSize(zigzag(value - previous));
+            if (i == 0 || value != previous) {
+                runSize += varintSize(zigzag(value)) + 1;   // Most runs fit in one byte
+            }
+            if (distinct <= 256 && indexOf(dictionary, distinct, value) < 0) {
+                if (distinct < 256) {
+                    dictionary[distinct] = value;
+                }
+                distinct++;
+            }
+            previous = value;
+        }
+        int dictionarySize = Integer.MAX_VALUE;
+        if (distinct <= 256) {
+            dictionarySize = varintSize(distinct) + count;
+            for (int i = 0; i < distinct; i++) {
+                dictionarySize += varintSize(zigzag(dictionary[i]));
+            }
+        }
+        
+        target.reset();
+        if (dictionarySize <= deltaSize && dictionarySize <= runSize) {
+            writeVarint(target, distinct);
+            for (int i = 0; i < distinct; i++) {
+                writeVarint(target, zigzag(dictionary[i]));
+            }
+            for (int i = 0; i < count; i++) {
+                target.write(indexOf(dictionary, distinct, values[i]));
+            }
+            return DICTIONARY;
+        }
+        if (runSize < deltaSize) {
+            for (int i = 0; i < count; ) {
+                int run = 1;
+                while (i + run < count && values[i + run] == values[i]) {
+                    run++;
+                }
+                writeVarint(target, zigzag(values[i]));
+                writeVarint(target, run);
+                i += run;
+            }
+            return RUN_LENGTH;
+        }
+        previous = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarint(target, zigzag(values[i] - previous));
+            previous = values[i];
+        }
+        return DELTA;
+    }
+    
+    /**
+     * Decodes a column chunk.
+     * 
+     * @param encoding the encoding used
+     * @param bytes the encoded bytes
+     * @param values receives the values
+     * @param count the number of rows
+     */
+    static void decode(byte encoding, byte[] bytes, int[] values, int count) {
+        int[] position = new int[1];
+        if (encoding == DICTIONARY) {
+            int[] dictionary = new int[readVarint(bytes, position)];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = unzigzag(readVarint(bytes, position));
+            }
+            for (int i = 0; i < count; i++) {
+                values[i] = dictionary[bytes[position[0]++] & 0xFF];
+            }
+        } else if (encoding == RUN_LENGTH) {
+            for (int i = 0; i < count; ) {
+                int value = unzigzag(readVarint(bytes, position));
+                int run = readVarint(bytes, position);
+                Arrays.fill(values, i, i + run, value);
+                i += run;
+            }
+        } else if (encoding == DELTA) {
+            int previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += unzigzag(readVarint(bytes, position));
+                values[i] = previous;
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown column encoding " + encoding);
+        }
+    }
+    
+    private static int indexOf(int[] dictionary, int size, int value) {
+        for (int i = 0; i < size && i < dictionary.length; i++) {
+            if (dictionary[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+    
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+    
+    private static void writeVarint(ByteArrayOutputStream target, int value) {
+        while ((value & ~0x7F) != 0) {
+            target.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target.write(value);
+    }
+    
+    private static int readVarint(byte[] bytes, int[] position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+    
+    /**
+     * Reads single columns back from an exported file. Only the chunks of the
+     * requested column are read and inflated; the others are seeked past.
+     */
+    public static final class Reader implements Closeable {
+        
+        private final RandomAccessFile file;
+        private final List<String> playerNames;
+        private final long firstBlock;
+        
+        /**
+         * Constructor to open an exported file.
+         * 
+         * @param input the file
+         * @throws IOException if the file cannot be read or is not an export
+         */
+        public Reader(Path input) throws IOException {
+            this.file = new RandomAccessFile(input.toFile(), "r");
+            if (file.readInt() != MAGIC || file.readShort() != VERSION) {
+                file.close();
+                throw new IOException("Not a round history file: " + input);
+            }
+            int seats = file.readUnsignedByte();
+            this.playerNames = new ArrayList<>();
+            for (int i = 0; i < seats; i++) {
+                playerNames.add(file.readUTF());
+            }
+            this.firstBlock = file.getFilePointer();
+        }
+        
+        /**
+         * Gets the names of the players, indexed by the PLAYER column.
+         * 
+         * @return the names in seat order
+         */
+        public List<String> getPlayerNames() {
+            return playerNames;
+        }
+        
+        /**
+         * Passes every value of one column, in row order, to a consumer.
+         * 
+         * @param column the column to read
+         * @param consumer receives each value
+         * @return the number of rows
+         * @throws IOException if the file cannot be read or is corrupt
+         */
+        public long scan(Column column, IntConsumer consumer) throws IOException {
+            file.seek(firstBlock);
+            Inflater inflater = new Inflater();
+            int[] values = new int[BLOCK_ROWS];
+            byte[] compressed = new byte[0];
+            byte[] raw = new byte[0];
+            long total = 0;
+            try {
+                for (int count = file.readInt(); count > 0; count = file.readInt()) {
+                    for (int c = 0; c < COLUMNS.length; c++) {
+                        byte encoding = file.readByte();
+                        int rawLength = file.readInt();
+                        int length = file.readInt();
+                        if (c != column.ordinal()) {
+                            file.seek(file.getFilePointer() + length);
+                            continue;
+                        }
+                        if (compressed.length < length) {
+                            compressed = new byte[length];
+                        }
+                        if (raw.length < rawLength) {
+                            raw = new byte[rawLength];
+                        }
+                        file.readFully(compressed, 0, length);
+                        inflater.reset();
+                        inflater.setInput(compressed, 0, length);
+                        if (inflater.inflate(raw, 0, rawLength) != rawLength) {
+                            throw new IOException("Column " + column + " is truncated");
+                        }
+                        decode(encoding, raw, values, count);
+                        for (int i = 0; i < count; i++) {
+                            consumer.accept(values[i]);
+                        }
+                    }
+                    total += count;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Column " + column + " is corrupt: " + e.getMessage());
+            } finally {
+                inflater.end();
+            }
+            return total;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+    }
+    
+    /**
+     * Exports a long session at one table, reports the size against CSV, and
+     * checks the points change column read back on its own against the game.
+     * 
+     * @param args optional: rounds, output file
+     * @throws IOException if the file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path output = args.length > 1 ? Paths.get(args[1])
+                : Files.createTempFile("rounds", ".bjcx");
+        
+        TableSimulator table = new TableSimulator(6, 17796L);
+        table.addPlayer(new BlackjackPlayer("Basic", 1_000_000_000), PolicyStrategy.basic(10));
+        table.addPlayer(new BlackjackPlayer("Ramp", 1_000_000_000),
+                        PolicyStrategy.basic(10).withBetRamp(new int[] {10, 10, 20, 40, 80}));
+        table.addPlayer(new BlackjackPlayer("Flat", 1_000_000_000), PolicyStrategy.basic(25));
+        long expectedNet = 0;
+        long csvBytes = 0;
+        long rows;
+        long start = System.nanoTime();
+        try (RoundHistoryExporter exporter = new RoundHistoryExporter(output)) {
+            table.addRoundListener(exporter);
+            for (int round = 0; round < rounds && table.playRound(); round++) {
+                for (int seat = 0; seat < table.getPlayers().size(); seat++) {
+                    if (table.getLastResult(seat) != null) {
+                        expectedNet += table.getLastPointsChange(seat);
+                        csvBytes += (table.getRoundNumber() + "," + table.getPlayers().get(seat).getName() + ","
+                                + table.getPlayers().get(seat).getCurrentBet() + ","
+                                + table.getPlayers().get(seat).getHandValue() + "," + table.getDealerFinalValue()
+                                + "," + table.getLastResult(seat).name() + "," + table.getLastPointsChange(seat)
+                                + "\n").length();
+                    }
+                }
+            }
+            rows = exporter.getRowCount();
+            System.out.printf("Exported %,d rows in %.1f s%n", rows,
+                              (System.nanoTime() - start) / 1e9);
+        }
+        long size = Files.size(output);
+        System.out.printf("%s: %,d bytes (%.2f bytes per row), CSV would be %,d bytes (%.1fx larger)%n",
+                          output, size, size / (double) Math.max(1, rows), csvBytes, csvBytes / (double) size);
+        
+        try (Reader reader = new Reader(output)) {
+            for (int c = 0; c < COLUMNS.length; c++) {
+                long[] sum = new long[1];
+                start = System.nanoTime();
+                long scanned = reader.scan(COLUMNS[c], value -> sum[0] += value);
+                System.out.printf("  scan %-13s %,d rows in %4.0f ms%n", COLUMNS[c], scanned,
+                                  (System.nanoTime() - start) / 1e6);
+                if (COLUMNS[c] == Column.POINTS_CHANGE && sum[0] != expectedNet) {
+                    throw new IllegalStateException("Points change column sums to " + sum[0]
+                            + " but the game paid " + expectedNet);
+                }
+            }
+            System.out.printf("Points change column matches the game: net %+,d%n", expectedNet);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * The possible results of a round for one player.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+/**
+ * Represents the result of a round for a single player against the dealer.
+ * Holds the settlement rules used by BlackjackGame, so that the interactive
+ * game and headless simulations always pay out the same way.
+ */
+public enum RoundResult {
+    LOSE_BUSTED("LOSE (Busted)"),
+    LOSE_DEALER_BLACKJACK("LOSE (Dealer Blackjack)"),
+    WIN_BLACKJACK("WIN (Blackjack!)"),
+    WIN_DEALER_BUSTED("WIN (Dealer Busted)"),
+    WIN("WIN"),
+    LOSE("LOSE"),
+    PUSH("PUSH (Tie)");
+    
+    private final String label;
+    
+    RoundResult(String label) {
+        this.label = label;
+    }
+    
+    /**
+     * Gets the text shown to players for this result.
+     * 
+     * @return the result label
+     */
+    public String getLabel() {
+        return label;
+    }
+    
+    /**
+     * Works out the points won or lost for a bet with this result.
+     * Blackjack pays 3:2, rounded down.
+     * 
+     * @param bet the amount bet
+     * @return the points change (negative for a loss)
+     */
+    public int pointsChange(int bet) {
+        switch (this) {
+            case WIN_BLACKJACK:
+                return (int) (bet * BlackjackGame.BLACKJACK_PAYOUT);
+            case WIN_DEALER_BUSTED:
+            case WIN:
+                return bet;
+            case PUSH:
+                return 0;
+            default:
+                return -bet;
+        }
+    }
+    
+    /**
+     * Decides the result of a player's hand against the dealer's hand.
+     * 
+     * @param playerValue the player's hand value
+     * @param playerBlackjack whether the player has a Blackjack
+     * @param dealerValue the dealer's hand value
+     * @param dealerBlackjack whether the dealer has a Blackjack
+     * @return the round result for the player
+     */
+    public static RoundResult resolve(int playerValue, boolean playerBlackjack,
+                                      int dealerValue, boolean dealerBlackjack) {
+        boolean playerBusted = playerValue > 21;
+        boolean dealerBusted = dealerValue > 21;
+        
+        if ((playerBusted && !dealerBusted) || 
+                ((playerBusted && dealerBusted) && (playerValue > dealerValue))
+                ) {
+            // Player busted or both player and dealer busted but player hand has higher value - loses bet
+            return LOSE_BUSTED;
+        } else if (dealerBlackjack && !playerBlackjack) {
+            // Dealer has blackjack, player doesn't
+            return LOSE_DEALER_BLACKJACK;
+        } else if (playerBlackjack && !dealerBlackjack) {
+            // Player has blackjack, dealer doesn't - 3:2 payout
+            return WIN_BLACKJACK;
+        } else if ((dealerBusted && !playerBusted) || 
+                    ((dealerBusted && playerBusted) && (dealerValue > playerValue))
+                ) {
+            // Dealer busted or both dealer and player busted but dealer hand has higher value - player wins
+            return WIN_DEALER_BUSTED;
+        } else if (playerValue > dealerValue) {
+            // Player has higher value
+            return WIN;
+        } else if (playerValue < dealerValue) {
+            // Dealer has higher value
+            return LOSE;
+        } else {
+            // Push (tie)
+            return PUSH;
+        }
+    }
+    
+    /**
+     * Decides the result of a player's hand against the dealer's hand.
+     * 
+     * @param player the player's hand
+     * @param dealer the dealer's hand
+     * @return the round result for the player
+     */
+    public static RoundResult resolve(Hand player, Hand dealer) {
+        return resolve(player.getValue(), player.isBlackjack(), dealer.getValue(), dealer.isBlackjack());
+    }
+}
@@ -0,0 +1,519 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Splits a simulation job into shards run by separate worker processes.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Runs a large simulation as shards in separate JVMs on this host and merges
+ * their results. A job is a number of tables, each playing the same number of
+ * rounds on TableSimulator seeded seed + table number, so a table's rounds
+ * depend on nothing but its number. The coordinator splits the tables into
+ * contiguous shards and starts a worker process (java -cp with this class path)
+ * for each, a few at a time. A worker plays its tables and writes a Partial:
+ * per-seat integer sums only, in a small binary file with a checksum.
+ * 
+ * Because every figure is an integer sum, adding the partials in any order
+ * gives exactly what one process playing every table would get, and the merged
+ * file is byte for byte the same as a single-process run. A worker that exits
+ * with an error, runs past the timeout or leaves a missing or corrupt file is
+ * started again, up to a number of attempts, before the job fails.
+ * 
+ * Job keys, besides the table and seat keys of SimulationJob (defaults in
+ * brackets):
+ * <pre>
+ * tables=64               rounds=100000         (per table)
+ * shards=[tables / 4]     workers=[processors]
+ * attempts=3              timeout.seconds=600   worker.heap=256m
+ * </pre>
+ */
+public class ShardedSimulation {
+    
+    private static final String WORKER_FLAG = "--worker";
+    
+    // Crash the first attempt of every shard numbered a multiple of this (testing only)
+    private static final String CRASH_KEY = "test.crash.every";
+    private static final List<String> SHARD_KEYS = Arrays.asList("tables", "rounds", "shards", "workers",
+            "attempts", "timeout.seconds", "worker.heap", CRASH_KEY);
+    
+    private final Properties config;
+    private final SimulationJob job;
+    private final int tables;
+    private final int roundsPerTable;
+    private final int shards;
+    private final int workers;
+    private final int attempts;
+    private final long timeoutSeconds;
+    
+    /**
+     * The results of a range of tables: for each seat the rounds bet, the count
+     * of each RoundResult, the sum and sum of squares of the points change, and
+     * the sum of the side bet change.
+     */
+    public static final class Partial {
+        
+        private static final int MAGIC = 0x424A5348;    // "BJSH"
+        private static final short VERSION = 2;
+        private static final int RESULTS = RoundResult.values().length;
+        static final int FIELDS = RESULTS + 4;
+        
+        private final int fromTable;
+        private final int toTable;
+        private final int seats;
+        private final long[] sums;      // FIELDS per seat
+        
+        /**
+         * Constructor to create an empty partial.
+         * 
+         * @param fromTable the first table covered
+         * @param toTable one past the last table covered
+         * @param seats the number of seats at each table
+         */
+        public Partial(int fromTable, int toTable, int seats) {
+            this.fromTable = fromTable;
+            this.toTable = toTable;
+            this.seats = seats;
+            this.sums = new long[seats * FIELDS];
+        }
+        
+        /**
+         * Adds one seat's result for a round.
+         */
+        void record(int seat, RoundResult result, int pointsChange, int sideBetChange) {
+            int base = seat * FIELDS;
+            sums[base]++;
+            sums[base + 1 + result.ordinal()]++;
+            sums[base + 1 + RESULTS] += pointsChange;
+            sums[base + 2 + RESULTS] += (long) pointsChange * pointsChange;
+            sums[base + 3 + RESULTS] += sideBetChange;
+        }
+        
+        /**
+         * Adds the partial for the tables just after this one's.
+         * 
+         * @param next the partial starting where this one ends
+         * @return the partial covering both ranges
+         */
+        public Partial merge(Partial next) {
+            if (next.fromTable != toTable || next.seats != seats) {
+                throw new IllegalArgumentException("Tables " + next.fromTable + "-" + next.toTable
+                        + " do not follow tables " + fromTable + "-" + toTable);
+            }
+            Partial merged = new Partial(fromTable, next.toTable, seats);
+            for (int i = 0; i < sums.length; i++) {
+                merged.sums[i] = sums[i] + next.sums[i];
+            }
+            return merged;
+        }
+        
+        public int getFromTable() {
+            return fromTable;
+        }
+        
+        public int getToTable() {
+            return toTable;
+        }
+        
+        public long getRounds(int seat) {
+            return sums[seat * FIELDS];
+        }
+        
+        public long getCount(int seat, RoundResult result) {
+            return sums[seat * FIELDS + 1 + result.ordinal()];
+        }
+        
+        public long getNet(int seat) {
+            return sums[seat * FIELDS + 1 + RESULTS];
+        }
+        
+        public long getSumOfSquares(int seat) {
+            return sums[seat * FIELDS + 2 + RESULTS];
+        }
+        
+        public long getSideBetNet(int seat) {
+            return sums[seat * FIELDS + 3 + RESULTS];
+        }
+        
+        /**
+         * Encodes the partial: a header, the sums and a CRC32 of everything before it.
+         * 
+         * @return the bytes
+         */
+        public byte[] toBytes() {
+            ByteBuffer buffer = ByteBuffer.allocate(19 + 8 * sums.length + 4);
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.putInt(fromTable);
+            buffer.putInt(toTable);
+            buffer.put((byte) seats);
+            buffer.putInt(FIELDS);
+            for (int i = 0; i < sums.length; i++) {
+                buffer.putLong(sums[i]);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), 0, buffer.position());
+            buffer.putInt((int) crc.getValue());
+            return buffer.array();
+        }
+        
+        /**
+         * Decodes and checks a partial.
+         * 
+         * @param bytes the encoded partial
+         * @return the partial
+         * @throws IllegalArgumentException if the bytes are truncated or corrupt
+         */
+        public static Partial fromBytes(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (bytes.length < 23 || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                throw new IllegalArgumentException("Not a shard result");
+            }
+            int from = buffer.getInt();
+            int to = buffer.getInt();
+            int seats = buffer.get();
+            if (seats < 1 || buffer.getInt() != FIELDS || bytes.length != 19 + 8 * seats * FIELDS + 4) {
+                throw new IllegalArgumentException("Shard result has the wrong length");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - 4);
+            if (ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt() != (int) crc.getValue()) {
+                throw new IllegalArgumentException("Shard result checksum does not match");
+            }
+            Partial partial = new Partial(from, to, seats);
+            for (int i = 0; i < partial.sums.length; i++) {
+                partial.sums[i] = buffer.getLong();
+            }
+            return partial;
+        }
+    }
+    
+    /**
+     * Constructor to create a job from a configuration.
+     * 
+     * @param config the configuration (see the class comment for the keys)
+     * @throws IllegalArgumentException if a setting is missing, invalid or not recognised
+     */
+    public ShardedSimulation(Properties config) {
+        this.config = config;
+        this.job = new SimulationJob(config, SHARD_KEYS);
+        this.tables = SimulationJob.intSetting(config, "tables", 64);
+        this.roundsPerTable = SimulationJob.intSetting(config, "rounds", 100_000);
+        this.shards = SimulationJob.intSetting(config, "shards", Math.max(1, tables / 4));
+        this.workers = SimulationJob.intSetting(config, "workers", Runtime.getRuntime().availableProcessors());
+        this.attempts = SimulationJob.intSetting(config, "attempts", 3);
+        this.timeoutSeconds = SimulationJob.intSetting(config, "timeout.seconds", 600);
+        if (tables < 1 || roundsPerTable < 1 || workers < 1 || attempts < 1) {
+            throw new IllegalArgumentException("tables, rounds, workers and attempts must be at least 1");
+        }
+        if (shards < 1 || shards > tables) {
+            throw new IllegalArgumentException("shards must be from 1 to the number of tables");
+        }
+    }
+    
+    /**
+     * Plays a range of tables in this process.
+     * 
+     * @param fromTable the first table
+     * @param toTable one past the last table
+     * @return the sums for those tables
+     */
+    public Partial playTables(int fromTable, int toTable) {
+        int seats = job.getSeats();
+        Partial partial = new Partial(fromTable, toTable, seats);
+        for (int tableId = fromTable; tableId < toTable; tableId++) {
+            TableSimulator table = job.newTable(tableId);
+            for (int round = 0; round < roundsPerTable && table.playRound(); round++) {
+                for (int seat = 0; seat < seats; seat++) {
+                    RoundResult result = table.getLastResult(seat);
+                    if (result != null) {
+                        partial.record(seat, result, table.getLastPointsChange(seat),
+                                       table.getLastSideBetChange(seat));
+                    }
+                }
+            }
+        }
+        return partial;
+    }
+    
+    /**
+     * Plays the whole job in this process, for comparison with a sharded run.
+     * 
+     * @return the sums for every table
+     */
+    public Partial runLocal() {
+        return playTables(0, tables);
+    }
+    
+    /**
+     * Runs every shard in a worker process and merges the results.
+     * 
+     * @param workDir where the job file, shard results and worker logs are written
+     * @return the sums for every table
+     * @throws IOException if the job file cannot be written or a shard fails on every attempt
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public Partial runSharded(Path workDir) throws IOException, InterruptedException {
+        Files.createDirectories(workDir);
+        Path jobFile = workDir.resolve("job.properties");
+        try (OutputStream out = Files.newOutputStream(jobFile)) {
+            config.store(out, "Sharded simulation job");
+        }
+        
+        ExecutorService launcher = Executors.newFixedThreadPool(Math.min(workers, shards));
+        List<Future<Partial>> futures = new ArrayList<>();
+        try {
+            for (int shard = 0; shard < shards; shard++) {
+                final int shardId = shard;
+                futures.add(launcher.submit(() -> runShard(shardId, jobFile, workDir)));
+            }
+            Partial merged = null;
+            for (int shard = 0; shard < shards; shard++) {
+                Partial partial = futures.get(shard).get();
+                merged = merged == null ? partial : merged.merge(partial);
+            }
+            return merged;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Shard coordinator failed", e.getCause());
+        } finally {
+            launcher.shutdownNow();
+        }
+    }
+    
+    /**
+     * Runs one shard in a worker process, starting it again if it fails.
+     * 
+     * @param shard the shard number
+     * @param jobFile the job configuration
+     * @param workDir where the result and log are written
+     * @return the shard's sums
+     * @throws IOException if every attempt fails
+     * @throws InterruptedException if interrupted while waiting for the worker
+     */
+    private Partial runShard(int shard, Path jobFile, Path workDir) throws IOException, InterruptedException {
+        int from = firstTable(shard);
+        int to = firstTable(shard + 1);
+        Path result = workDir.resolve("shard-" + shard + ".bin");
+        String failure = null;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            Files.deleteIfExists(result);
+            ProcessBuilder builder = new ProcessBuilder(
+                    Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Xmx" + config.getProperty("worker.heap", "256m").trim(),
+                    "-cp", System.getProperty("java.class.path"),
+                    ShardedSimulation.class.getName(), WORKER_FLAG, jobFile.toString(),
+                    Integer.toString(from), Integer.toString(to), result.toString(), Integer.toString(attempt));
+            builder.redirectErrorStream(true);
+            builder.redirectOutput(workDir.resolve("shard-" + shard + ".log").toFile());
+            Process worker = builder.start();
+            try {
+                if (!worker.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                    failure = "timed out after " + timeoutSeconds + " s";
+                } else if (worker.exitValue() != 0) {
+                    failure = "exited with status " + worker.exitValue();
+                } else if (!Files.exists(result)) {
+                    failure = "wrote no result";
+                } else {
+                    Partial partial = Partial.fromBytes(Files.readAllBytes(result));
+                    if (partial.fromTable != from || partial.toTable != to || partial.seats != job.getSeats()) {
+                        failure = "returned tables " + partial.fromTable + "-" + partial.toTable;
+                    } else {
+                        return partial;
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                failure = e.getMessage();
+            } finally {
+                worker.destroyForcibly();
+            }
+            System.err.println("Error: Shard " + shard + " (tables " + from + "-" + (to - 1) + ") attempt "
+                    + attempt + " " + failure + (attempt < attempts ? ", retrying" : ""));
+        }
+        throw new IOException("Shard " + shard + " failed " + attempts + " times: " + failure);
+    }
+    
+    /**
+     * Gets the first table of a shard; tables are spread as evenly as possible.
+     * 
+     * @param shard the shard number, or the number of shards for the end
+     * @return the table number
+     */
+    private int firstTable(int shard) {
+        return (int) ((long) tables * shard / shards);
+    }
+    
+    /**
+     * Formats each seat's results.
+     * 
+     * @param partial the sums for every table
+     * @return the summary
+     */
+    public String summary(Partial partial) {
+        StringBuilder sb = new StringBuilder();
+        for (int seat = 0; seat < job.getSeats(); seat++) {
+            long rounds = partial.getRounds(seat);
+            double mean = rounds == 0 ? 0.0 : partial.getNet(seat) / (double) rounds;
+            double variance = rounds == 0 ? 0.0 : partial.getSumOfSquares(seat) / (double) rounds - mean * mean;
+            sb.append(String.format("  %-12s rounds %,d  net %+,d  per round %+.5f +/- %.5f  side bets %+,d%n",
+                    job.getName(seat), rounds, partial.getNet(seat), mean,
+                    Math.sqrt(variance / Math.max(rounds, 1)), partial.getSideBetNet(seat)));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Plays one shard as a worker process and writes its result file. The file
+     * is written under a temporary name and moved into place, so the coordinator
+     * never reads a half-written result.
+     * 
+     * @param args the job file, first table, end table, result file and attempt number
+     * @throws IOException if the job cannot be read or the result written
+     */
+    private static void runWorker(String[] args) throws IOException {
+        Properties config = load(Paths.get(args[1]));
+        int from = Integer.parseInt(args[2]);
+        int to = Integer.parseInt(args[3]);
+        Path result = Paths.get(args[4]);
+        int attempt = Integer.parseInt(args[5]);
+        
+        ShardedSimulation simulation = new ShardedSimulation(config);
+        int crashEvery = SimulationJob.intSetting(config, CRASH_KEY, 0);
+        if (crashEvery > 0 && attempt == 1 && simulation.shardOf(from) % crashEvery == 0) {
+            System.out.println("Crashing on purpose (" + CRASH_KEY + ")");
+            Runtime.getRuntime().halt(3);
+        }
+        byte[] bytes = simulation.playTables(from, to).toBytes();
+        Path temporary = result.resolveSibling(result.getFileName() + ".tmp");
+        Files.write(temporary, bytes);
+        Files.move(temporary, result, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Tables " + from + "-" + (to - 1) + " done");
+    }
+    
+    /**
+     * Finds the shard a table belongs to.
+     * 
+     * @param table the table number
+     * @return the shard number
+     */
+    private int shardOf(int table) {
+        int shard = (int) ((long) table * shards / tables);
+        while (firstTable(shard) > table) {
+            shard--;
+        }
+        while (firstTable(shard + 1) <= table) {
+            shard++;
+        }
+        return shard;
+    }
+    
+    /**
+     * Removes a temporary work directory: the job file, shard results and logs.
+     * A failure is reported but does not end the run.
+     * 
+     * @param workDir the directory
+     */
+    private static void deleteWorkDir(Path workDir) {
+        try {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(workDir)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(workDir);
+        } catch (IOException e) {
+            System.err.println("Error: Could not remove " + workDir + ": " + e.getMessage());
+        }
+    }
+    
+    private static Properties load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        }
+        return properties;
+    }
+    
+    /**
+     * Runs a job as shards in worker processes, then in this process alone, and
+     * checks that the merged result is byte for byte the same.
+     * 
+     * @param args optional: the job file, and a work directory [a temporary directory]
+     */
+    public static void main(String[] args) {
+        try {
+            if (args.length > 0 && args[0].equals(WORKER_FLAG)) {
+                runWorker(args);
+                return;
+            }
+            Properties job = new Properties();
+            if (args.length > 0) {
+                job = load(Paths.get(args[0]));
+            } else {
+                // A small demonstration job in which a third of the shards crash once
+                job.setProperty("tables", "24");
+                job.setProperty("rounds", "20000");
+                job.setProperty("shards", "6");
+                job.setProperty("player.1.name", "Basic");
+                job.setProperty("player.2.name", "Ramp");
+                job.setProperty("player.2.bets", "10,10,20,40,80");
+                job.setProperty(CRASH_KEY, "3");
+            }
+            ShardedSimulation simulation = new ShardedSimulation(job);
+            boolean keepWorkDir = args.length > 1;
+            Path workDir = keepWorkDir ? Paths.get(args[1]) : Files.createTempDirectory("bj-shards");
+            try {
+                long start = System.nanoTime();
+                Partial sharded = simulation.runSharded(workDir);
+                double shardedSeconds = (System.nanoTime() - start) / 1e9;
+                start = System.nanoTime();
+                Partial local = simulation.runLocal();
+                double localSeconds = (System.nanoTime() - start) / 1e9;
+                
+                System.out.printf("%d tables x %,d rounds in %d shards on %d workers%s%n",
+                        simulation.tables, simulation.roundsPerTable, simulation.shards, simulation.workers,
+                        keepWorkDir ? " (results in " + workDir + ")" : "");
+                System.out.print(simulation.summary(sharded));
+                System.out.printf("Sharded %.1f s, single process %.1f s, merged result %s%n", shardedSeconds,
+                        localSeconds, Arrays.equals(sharded.toBytes(), local.toBytes())
+                                ? "bit-identical" : "DIFFERS from the single-process run");
+            } finally {
+                if (!keepWorkDir) {
+                    deleteWorkDir(workDir);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: Invalid job: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
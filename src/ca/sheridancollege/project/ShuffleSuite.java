@@ -0,0 +1,298 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Checks that shuffling is fair and measures how fast it is.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Runs many shuffles through Deck.reset(), the path every table uses, and
+ * checks the resulting orders for bias:
+ * <ul>
+ *   <li>position uniformity: a chi-squared test per card over every position
+ *       in the shoe, and one over the whole card-by-position table;</li>
+ *   <li>adjacent pairs: a chi-squared test over how often each card directly
+ *       follows each other card;</li>
+ *   <li>serial correlation of neighbouring card values, against the exact
+ *       value -1/(n-1) expected for a random permutation.</li>
+ * </ul>
+ * It then benchmarks shuffles per second for shoes of 1 to 8 decks, and compares
+ * whole-table simulation speed and house edge for a shoe, a continuous shuffling
+ * machine and an infinite deck, so the error of the cheaper modes is known.
+ * 
+ * The random number source is any java.util.Random subclass with a no-argument
+ * constructor, so a faster generator can be proven unbiased before it is used
+ * at real tables. The run fails (exit status 1) if any statistic is more than
+ * MAX_Z standard deviations from what a fair shuffle gives.
+ */
+public class ShuffleSuite {
+    
+    // Statistics further than this from a fair shuffle fail the suite
+    private static final double MAX_Z = 5.0;
+    
+    private static final int CARDS = BlackjackCard.CARDS_PER_DECK;
+    
+    private final Deck deck;
+    private final int positions;
+    private final long[][] positionCounts;     // [card index][position]
+    private final long[][] pairCounts;         // [card index][index of the next card]
+    private double valueProducts;              // Sum of value(k) * value(k + 1)
+    private long shuffles;
+    private boolean failed;
+    
+    /**
+     * Constructor to create a suite for a shoe.
+     * 
+     * @param numDecks the number of decks in the shoe
+     * @param random the random number source to test
+     */
+    public ShuffleSuite(int numDecks, Random random) {
+        this.deck = new Deck(numDecks, random);
+        this.positions = numDecks * CARDS;
+        this.positionCounts = new long[CARDS][positions];
+        this.pairCounts = new long[CARDS][CARDS];
+    }
+    
+    /**
+     * Shuffles the shoe repeatedly and tallies every order.
+     * 
+     * @param count the number of shuffles
+     */
+    public void collect(int count) {
+        int[] order = new int[positions];
+        for (int n = 0; n < count; n++) {
+            deck.reset();
+            ArrayList<Card> cards = deck.getCards();
+            for (int p = 0; p < positions; p++) {
+                order[p] = ((BlackjackCard) cards.get(p)).getIndex();
+                positionCounts[order[p]][p]++;
+            }
+            for (int p = 0; p + 1 < positions; p++) {
+                pairCounts[order[p]][order[p + 1]]++;
+                valueProducts += valueOf(order[p]) * valueOf(order[p + 1]);
+            }
+        }
+        shuffles += count;
+    }
+    
+    /**
+     * Tests every card for a uniform spread over the positions in the shoe.
+     */
+    public void checkPositions() {
+        double expected = shuffles * (double) (positions / CARDS) / positions;
+        double total = 0;
+        double worstZ = 0;
+        int worstCard = 0;
+        for (int card = 0; card < CARDS; card++) {
+            double chiSquared = 0;
+            for (int p = 0; p < positions; p++) {
+                double diff = positionCounts[card][p] - expected;
+                chiSquared += diff * diff / expected;
+            }
+            total += chiSquared;
+            double z = chiSquaredZ(chiSquared, positions - 1);
+            if (Math.abs(z) > Math.abs(worstZ)) {
+                worstZ = z;
+                worstCard = card;
+            }
+        }
+        report("Worst card position chi-squared (" + BlackjackCard.symbolOf(worstCard) + ")", worstZ,
+               MAX_Z + 1.0);    // The worst of 52 tests is allowed a little more room
+        report("Card-by-position chi-squared", chiSquaredZ(total, CARDS * (positions - 1)), MAX_Z);
+    }
+    
+    /**
+     * Tests how often each card directly follows each other card.
+     */
+    public void checkAdjacentPairs() {
+        int copies = positions / CARDS;
+        double chiSquared = 0;
+        int cells = 0;
+        for (int first = 0; first < CARDS; first++) {
+            for (int second = 0; second < CARDS; second++) {
+                int sameCard = first == second ? 1 : 0;
+                double expected = shuffles * (double) copies * (copies - sameCard) / positions;
+                if (expected <= 0) {
+                    continue;   // A single deck cannot have a card next to itself
+                }
+                double diff = pairCounts[first][second] - expected;
+                chiSquared += diff * diff / expected;
+                cells++;
+            }
+        }
+        report("Adjacent pair chi-squared", chiSquaredZ(chiSquared, cells - 1), MAX_Z);
+    }
+    
+    /**
+     * Tests the correlation of neighbouring card values against a random permutation,
+     * where it is exactly -1/(n-1) because the cards are drawn without replacement.
+     */
+    public void checkSerialCorrelation() {
+        double mean = 0;
+        double meanSquare = 0;
+        for (int card = 0; card < CARDS; card++) {
+            mean += valueOf(card) / (double) CARDS;
+            meanSquare += valueOf(card) * valueOf(card) / (double) CARDS;
+        }
+        double variance = meanSquare - mean * mean;
+        double pairs = shuffles * (double) (positions - 1);
+        double correlation = (valueProducts / pairs - mean * mean) / variance;
+        double expected = -1.0 / (positions - 1);
+        double z = (correlation - expected) * Math.sqrt(pairs);
+        System.out.printf("  %-44s %+.6f (fair %+.6f)%n", "Serial correlation of card values", correlation, expected);
+        report("Serial correlation", z, MAX_Z);
+    }
+    
+    /**
+     * Prints a statistic as a z-score and records a failure if it is too large.
+     * 
+     * @param name the statistic
+     * @param z its distance from a fair shuffle, in standard deviations
+     * @param limit the largest z allowed
+     */
+    private void report(String name, double z, double limit) {
+        boolean pass = Math.abs(z) <= limit;
+        failed |= !pass;
+        System.out.printf("  %-44s z = %+6.2f  %s%n", name, z, pass ? "ok" : "FAIL");
+    }
+    
+    /**
+     * Converts a chi-squared statistic to an approximate z-score
+     * (Wilson-Hilferty cube-root transformation).
+     * 
+     * @param chiSquared the statistic
+     * @param degrees its degrees of freedom
+     * @return the z-score
+     */
+    static double chiSquaredZ(double chiSquared, int degrees) {
+        double scale = 2.0 / (9.0 * degrees);
+        return (Math.cbrt(chiSquared / degrees) - (1 - scale)) / Math.sqrt(scale);
+    }
+    
+    /**
+     * Gets the Blackjack value of a card index (Aces count 11).
+     * 
+     * @param index the card index
+     * @return the value
+     */
+    private static int valueOf(int index) {
+        return BlackjackCard.fromIndex(index).getValue();
+    }
+    
+    /**
+     * Checks whether any statistic failed.
+     * 
+     * @return true if the shuffle looks biased
+     */
+    public boolean hasFailed() {
+        return failed;
+    }
+    
+    /**
+     * Measures Deck.reset() (rebuild and shuffle) for shoes of 1 to 8 decks.
+     * 
+     * @param randomClass the random number source to use
+     * @param millis how long to time each shoe size
+     * @throws ReflectiveOperationException if the random class cannot be created
+     */
+    public static void benchmark(Class<? extends Random> randomClass, long millis)
+            throws ReflectiveOperationException {
+        for (int decks = 1; decks <= 8; decks++) {
+            Deck deck = new Deck(decks, randomClass.getDeclaredConstructor().newInstance());
+            long sink = 0;
+            for (int n = 0; n < 20_000; n++) {
+                deck.reset();                   // Warm up
+            }
+            long count = 0;
+            long start = System.nanoTime();
+            long end = start + millis * 1_000_000L;
+            long now;
+            do {
+                for (int n = 0; n < 1_000; n++) {
+                    deck.reset();
+                    sink += ((BlackjackCard) deck.getCards().get(0)).getIndex();
+                }
+                count += 1_000;
+                now = System.nanoTime();
+            } while (now < end);
+            double seconds = (now - start) / 1e9;
+            System.out.printf("  %d deck%s: %,12.0f shuffles/s  %6.2f ns/card  (%d)%n",
+                    decks, decks == 1 ? " " : "s", count / seconds,
+                    (now - start) / (double) (count * decks * CARDS), sink % 10);
+        }
+    }
+    
+    /**
+     * Plays basic strategy at a one-seat table in every deck mode and prints the
+     * rounds per second and the house edge with its standard error.
+     * 
+     * @param decks the number of decks in the shoe
+     * @param rounds the rounds to play in each mode
+     */
+    public static void compareModes(int decks, long rounds) {
+        int bet = 10;
+        Deck.Mode[] modes = Deck.Mode.values();
+        for (int m = 0; m < modes.length; m++) {
+            TableSimulator table = new TableSimulator(decks, 17796L, modes[m]);
+            table.addPlayer(new BlackjackPlayer("Basic", Integer.MAX_VALUE / 2), PolicyStrategy.basic(bet));
+            for (int n = 0; n < 100_000; n++) {
+                table.playRound();              // Warm up
+            }
+            double sum = 0;
+            double sumSquares = 0;
+            long start = System.nanoTime();
+            for (long n = 0; n < rounds; n++) {
+                table.playRound();
+                double change = table.getLastPointsChange(0) / (double) bet;
+                sum += change;
+                sumSquares += change * change;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double mean = sum / rounds;
+            double error = Math.sqrt((sumSquares / rounds - mean * mean) / rounds);
+            System.out.printf("  %-10s %,12.0f rounds/s  house edge %+.3f%% +/- %.3f%%%n",
+                    modes[m], rounds / seconds, -100 * mean, 100 * error);
+        }
+    }
+    
+    /**
+     * Runs the fairness checks, the throughput benchmark and the deck mode comparison.
+     * 
+     * @param args optional: shuffles, decks, random class name, benchmark millis per shoe size,
+     *             rounds per deck mode
+     * @throws ReflectiveOperationException if the random class cannot be created
+     */
+    public static void main(String[] args) throws ReflectiveOperationException {
+        int shuffles = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int decks = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        String randomName = args.length > 2 ? args[2] : Random.class.getName();
+        long millis = args.length > 3 ? Long.parseLong(args[3]) : 500;
+        long modeRounds = args.length > 4 ? Long.parseLong(args[4]) : 2_000_000L;
+        
+        Class<? extends Random> randomClass = Class.forName(randomName).asSubclass(Random.class);
+        System.out.println("Fairness of " + randomClass.getSimpleName() + " over " + shuffles + " shuffles of "
+                + decks + " deck" + (decks == 1 ? "" : "s") + ":");
+        ShuffleSuite suite = new ShuffleSuite(decks, randomClass.getDeclaredConstructor().newInstance());
+        suite.collect(shuffles);
+        suite.checkPositions();
+        suite.checkAdjacentPairs();
+        suite.checkSerialCorrelation();
+        
+        System.out.println("Throughput of Deck.reset():");
+        benchmark(randomClass, millis);
+        
+        System.out.println("Basic strategy by deck mode (" + decks + " deck" + (decks == 1 ? "" : "s") + "):");
+        compareModes(decks, modeRounds);
+        
+        if (suite.hasFailed()) {
+            System.out.println("Shuffle FAILED the fairness checks");
+            System.exit(1);
+        }
+        System.out.println("Shuffle passed the fairness checks");
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Optional side bets settled on the initial deal.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.List;
+
+/**
+ * The side bets a player can place next to the main bet. Both are settled as
+ * soon as the first two cards are dealt:
+ * Perfect Pairs on the player's two cards, and 21+3 on the player's two cards
+ * plus the dealer's up card, scored like a three-card poker hand.
+ * 
+ * Every combination of card indexes is classified once into a lookup table
+ * (52 x 52 for Perfect Pairs, 52 x 52 x 52 for 21+3), so settling a side bet
+ * is a single array read. Each table is built the first time its side bet is
+ * settled (lazy holder), so games without side bets start no slower.
+ */
+public enum SideBet {
+    PERFECT_PAIRS("Perfect Pairs"),
+    TWENTY_ONE_PLUS_THREE("21+3");
+    
+    /**
+     * The paying hands of both side bets, with their odds.
+     */
+    public enum Outcome {
+        NO_WIN("No win", -1),
+        MIXED_PAIR("Mixed pair", 6),
+        COLORED_PAIR("Colored pair", 12),
+        PERFECT_PAIR("Perfect pair", 25),
+        FLUSH("Flush", 5),
+        STRAIGHT("Straight", 10),
+        THREE_OF_A_KIND("Three of a kind", 30),
+        STRAIGHT_FLUSH("Straight flush", 40),
+        SUITED_TRIPS("Suited trips", 100);
+        
+        private final String label;
+        private final int odds;
+        
+        Outcome(String label, int odds) {
+            this.label = label;
+            this.odds = odds;
+        }
+        
+        public String getLabel() {
+            return label;
+        }
+        
+        /**
+         * Gets the odds paid, to 1, or -1 for a losing hand.
+         * 
+         * @return the odds
+         */
+        public int getOdds() {
+            return odds;
+        }
+        
+        /**
+         * Works out the points won or lost for a side bet with this outcome.
+         * 
+         * @param bet the amount bet
+         * @return the points change (negative for a loss)
+         */
+        public int pointsChange(int bet) {
+            return bet * odds;
+        }
+    }
+    
+    private static final int CARDS = BlackjackCard.CARDS_PER_DECK;
+    private static final int RANKS = BlackjackCard.Rank.values().length;
+    private static final Outcome[] OUTCOMES = Outcome.values();
+    
+    /**
+     * Holds the Perfect Pairs table, built on first use.
+     */
+    private static final class Pairs {
+        
+        // TABLE[first * CARDS + second] is the Perfect Pairs outcome ordinal
+        static final byte[] TABLE = new byte[CARDS * CARDS];
+        
+        static {
+            for (int first = 0; first < CARDS; first++) {
+                for (int second = 0; second < CARDS; second++) {
+                    TABLE[first * CARDS + second] = (byte) classifyPair(first, second).ordinal();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Holds the 21+3 table, built on first use.
+     */
+    private static final class Threes {
+        
+        // TABLE[(first * CARDS + second) * CARDS + upCard] is the 21+3 outcome ordinal
+        static final byte[] TABLE = new byte[CARDS * CARDS * CARDS];
+        
+        static {
+            for (int first = 0; first < CARDS; first++) {
+                for (int second = 0; second < CARDS; second++) {
+                    for (int upCard = 0; upCard < CARDS; upCard++) {
+                        TABLE[(first * CARDS + second) * CARDS + upCard] =
+                                (byte) classifyThree(first, second, upCard).ordinal();
+                    }
+                }
+            }
+        }
+    }
+    
+    private final String label;
+    
+    SideBet(String label) {
+        this.label = label;
+    }
+    
+    /**
+     * Gets the name shown to players for this side bet.
+     * 
+     * @return the side bet label
+     */
+    public String getLabel() {
+        return label;
+    }
+    
+    /**
+     * Looks up the outcome of this side bet for a deal.
+     * 
+     * @param first the index of the player's first card
+     * @param second the index of the player's second card
+     * @param upCard the index of the dealer's up card (ignored by Perfect Pairs)
+     * @return the outcome
+     */
+    public Outcome outcome(int first, int second, int upCard) {
+        if (this == PERFECT_PAIRS) {
+            return OUTCOMES[Pairs.TABLE[first * CARDS + second]];
+        }
+        return OUTCOMES[Threes.TABLE[(first * CARDS + second) * CARDS + upCard]];
+    }
+    
+    /**
+     * Looks up the outcome of this side bet for a player's initial hand.
+     * 
+     * @param hand the player's hand, with at least two cards
+     * @param upCard the dealer's up card
+     * @return the outcome
+     */
+    public Outcome outcome(Hand hand, Card upCard) {
+        List<Card> cards = hand.getCards();
+        return outcome(((BlackjackCard) cards.get(0)).getIndex(),
+                       ((BlackjackCard) cards.get(1)).getIndex(),
+                       ((BlackjackCard) upCard).getIndex());
+    }
+    
+    /**
+     * Calculates the exact house edge of this side bet for the next deal from a shoe,
+     * by weighting every combination of card indexes by its probability of being
+     * dealt without replacement.
+     * 
+     * @param counts the number of each card index left in the shoe
+     * @return the expected loss per point bet (negative if the bet favours the player)
+     */
+    public double houseEdge(int[] counts) {
+        long total = 0;
+        for (int i = 0; i < CARDS; i++) {
+            total += counts[i];
+        }
+        if (total < 3) {
+            throw new IllegalArgumentException("The shoe needs at least 3 cards");
+        }
+        
+        byte[] table = this == PERFECT_PAIRS ? Pairs.TABLE : Threes.TABLE;
+        double expected = 0;
+        for (int first = 0; first < CARDS; first++) {
+            if (counts[first] == 0) {
+                continue;
+            }
+            for (int second = 0; second < CARDS; second++) {
+                long pairWays = (long) counts[first] * (counts[second] - (second == first ? 1 : 0));
+                if (pairWays <= 0) {
+                    continue;
+                }
+                if (this == PERFECT_PAIRS) {
+                    expected += pairWays * OUTCOMES[table[first * CARDS + second]].getOdds();
+                    continue;
+                }
+                int row = (first * CARDS + second) * CARDS;
+                for (int upCard = 0; upCard < CARDS; upCard++) {
+                    int left = counts[upCard] - (upCard == first ? 1 : 0) - (upCard == second ? 1 : 0);
+                    if (left > 0) {
+                        expected += (double) pairWays * left * OUTCOMES[table[row + upCard]].getOdds();
+                    }
+                }
+            }
+        }
+        
+        double combinations = (double) total * (total - 1);
+        if (this == TWENTY_ONE_PLUS_THREE) {
+            combinations *= total - 2;
+        }
+        return -expected / combinations;
+    }
+    
+    /**
+     * Counts the cards of each index in a list of cards, such as the cards left in a shoe.
+     * 
+     * @param cards the cards
+     * @return the number of cards of each index
+     */
+    public static int[] composition(List<Card> cards) {
+        int[] counts = new int[CARDS];
+        for (int i = 0; i < cards.size(); i++) {
+            counts[((BlackjackCard) cards.get(i)).getIndex()]++;
+        }
+        return counts;
+    }
+    
+    /**
+     * Classifies two cards for Perfect Pairs.
+     * 
+     * @param first the index of the first card
+     * @param second the index of the second card
+     * @return the outcome
+     */
+    private static Outcome classifyPair(int first, int second) {
+        if (first % RANKS != second % RANKS) {
+            return Outcome.NO_WIN;
+        }
+        if (first == second) {
+            return Outcome.PERFECT_PAIR;
+        }
+        return isRed(first) == isRed(second) ? Outcome.COLORED_PAIR : Outcome.MIXED_PAIR;
+    }
+    
+    /**
+     * Classifies three cards as a three-card poker hand for 21+3.
+     * 
+     * @param a the index of the first card
+     * @param b the index of the second card
+     * @param c the index of the third card
+     * @return the outcome
+     */
+    private static Outcome classifyThree(int a, int b, int c) {
+        boolean flush = a / RANKS == b / RANKS && b / RANKS == c / RANKS;
+        int low = Math.min(a % RANKS, Math.min(b % RANKS, c % RANKS));
+        int high = Math.max(a % RANKS, Math.max(b % RANKS, c % RANKS));
+        int middle = a % RANKS + b % RANKS + c % RANKS - low - high;
+        
+        if (low == high) {
+            return flush ? Outcome.SUITED_TRIPS : Outcome.THREE_OF_A_KIND;
+        }
+        // Ranks run Ace, 2, ..., King, so Q-K-A is the only straight that wraps
+        boolean straight = (middle == low + 1 && high == middle + 1)
+                || (low == BlackjackCard.Rank.ACE.ordinal()
+                    && middle == BlackjackCard.Rank.QUEEN.ordinal()
+                    && high == BlackjackCard.Rank.KING.ordinal());
+        if (straight) {
+            return flush ? Outcome.STRAIGHT_FLUSH : Outcome.STRAIGHT;
+        }
+        return flush ? Outcome.FLUSH : Outcome.NO_WIN;
+    }
+    
+    /**
+     * Checks whether a card is a heart or a diamond.
+     * 
+     * @param index the card index
+     * @return true for a red card
+     */
+    private static boolean isRed(int index) {
+        BlackjackCard.Suit suit = BlackjackCard.fromIndex(index).getSuit();
+        return suit == BlackjackCard.Suit.HEARTS || suit == BlackjackCard.Suit.DIAMONDS;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * The table and seat settings shared by the headless simulation tools.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Reads the part of a simulation configuration that describes the tables: the
+ * shoe, the dealer, the side bets and the seated players. BatchSimulation and
+ * ShardedSimulation both build their tables from one of these, so a
+ * configuration plays the same game in either tool.
+ * 
+ * Each tool names the keys of its own it accepts; any other key is rejected,
+ * so a misspelt or unsupported setting stops the run instead of being ignored.
+ * 
+ * Table keys (defaults in brackets):
+ * <pre>
+ * decks=6                       shuffle=shoe          (shoe, continuous or infinite)
+ * dealer.sampling=false         seed=17796
+ * side.bet.perfect.pairs=0      side.bet.twenty.one.plus.three=0
+ * player.1.name=Basic           (seats are numbered from 1, up to MAX_SEATS)
+ * player.1.bets=10              (bet ramp by true count, comma separated)
+ * player.1.hard=13,13,12,12,12,17,17,17,17,17   (optional, per dealer up card 2..A)
+ * player.1.soft=18,18,18,18,18,18,18,19,19,19   (optional)
+ * player.1.bankroll=1000000000
+ * </pre>
+ */
+public final class SimulationJob {
+    
+    private static final int DEFAULT_BANKROLL = 1_000_000_000;
+    private static final List<String> TABLE_KEYS = Arrays.asList("decks", "shuffle", "dealer.sampling", "seed");
+    private static final List<String> SEAT_KEYS = Arrays.asList("name", "bets", "hard", "soft", "bankroll");
+    
+    private final int decks;
+    private final Deck.Mode mode;
+    private final boolean dealerSampling;
+    private final long seed;
+    private final int[] sideBets;
+    private final List<String> names;
+    private final List<PolicyStrategy> strategies;
+    private final List<Integer> bankrolls;
+    
+    /**
+     * Constructor to read the table settings of a configuration.
+     * 
+     * @param config the configuration (see the class comment for the keys)
+     * @param toolKeys the other keys the calling tool accepts
+     * @throws IllegalArgumentException if a setting is missing, invalid or not recognised
+     */
+    public SimulationJob(Properties config, List<String> toolKeys) {
+        this.decks = intSetting(config, "decks", 6);
+        this.mode = Deck.Mode.valueOf(upperCase(config.getProperty("shuffle", "shoe")));
+        this.dealerSampling = Boolean.parseBoolean(config.getProperty("dealer.sampling", "false").trim());
+        this.seed = Long.parseLong(config.getProperty("seed", "17796").trim());
+        if (decks < 1) {
+            throw new IllegalArgumentException("decks must be at least 1");
+        }
+        
+        Set<String> known = new HashSet<>(TABLE_KEYS);
+        known.addAll(toolKeys);
+        SideBet[] allSideBets = SideBet.values();
+        this.sideBets = new int[allSideBets.length];
+        for (int i = 0; i < allSideBets.length; i++) {
+            String key = sideBetKey(allSideBets[i]);
+            sideBets[i] = intSetting(config, key, 0);
+            known.add(key);
+        }
+        
+        this.names = new ArrayList<>();
+        this.strategies = new ArrayList<>();
+        this.bankrolls = new ArrayList<>();
+        for (int seat = 1; config.getProperty("player." + seat + ".name") != null; seat++) {
+            String prefix = "player." + seat + ".";
+            int[] bets = intList(config, prefix + "bets", new int[] {10});
+            PolicyStrategy strategy = PolicyStrategy.basic(bets[0]).withBetRamp(bets);
+            if (config.getProperty(prefix + "hard") != null || config.getProperty(prefix + "soft") != null) {
+                strategy = new PolicyStrategy(intList(config, prefix + "hard", null),
+                                              intList(config, prefix + "soft", null), bets);
+            }
+            names.add(config.getProperty(prefix + "name").trim());
+            strategies.add(strategy);
+            bankrolls.add(intSetting(config, prefix + "bankroll", DEFAULT_BANKROLL));
+            for (int i = 0; i < SEAT_KEYS.size(); i++) {
+                known.add(prefix + SEAT_KEYS.get(i));
+            }
+        }
+        if (names.isEmpty() || names.size() > BlackjackGame.MAX_SEATS) {
+            throw new IllegalArgumentException("Configure 1 to " + BlackjackGame.MAX_SEATS
+                    + " players (player.1.name, player.2.name, ...)");
+        }
+        
+        List<String> unknown = new ArrayList<>(config.stringPropertyNames());
+        unknown.removeAll(known);
+        if (!unknown.isEmpty()) {
+            unknown.sort(null);
+            throw new IllegalArgumentException("Unsupported setting " + String.join(", ", unknown));
+        }
+    }
+    
+    /**
+     * Creates a table with these settings and every seat filled.
+     * 
+     * @param tableId the table number, added to the seed
+     * @return the table, ready to play
+     */
+    public TableSimulator newTable(int tableId) {
+        TableSimulator table = new TableSimulator(decks, seed + tableId, mode);
+        table.setDealerSampling(dealerSampling);
+        SideBet[] allSideBets = SideBet.values();
+        for (int i = 0; i < allSideBets.length; i++) {
+            table.setSideBet(allSideBets[i], sideBets[i]);
+        }
+        for (int seat = 0; seat < names.size(); seat++) {
+            table.addPlayer(new BlackjackPlayer(names.get(seat), bankrolls.get(seat)), strategies.get(seat));
+        }
+        return table;
+    }
+    
+    public int getSeats() {
+        return names.size();
+    }
+    
+    public String getName(int seat) {
+        return names.get(seat);
+    }
+    
+    /**
+     * Gets the configuration key of a side bet's amount, such as side.bet.perfect.pairs.
+     * 
+     * @param sideBet the side bet
+     * @return the key
+     */
+    public static String sideBetKey(SideBet sideBet) {
+        return "side.bet." + sideBet.name().toLowerCase().replace('_', '.');
+    }
+    
+    static int intSetting(Properties config, String key, int defaultValue) {
+        String value = config.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+    
+    static int[] intList(Properties config, String key, int[] defaultValue) {
+        String value = config.getProperty(key);
+        if (value == null) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException("Missing setting " + key);
+            }
+            return defaultValue;
+        }
+        String[] parts = value.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+    
+    static String upperCase(String value) {
+        return value.trim().toUpperCase();
+    }
+}
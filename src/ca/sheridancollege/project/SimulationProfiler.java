@@ -0,0 +1,387 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Built-in profiling mode for bulk simulations.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Profiles a bulk simulation or a game without an external profiler.
+ * 
+ * While it is installed in ProfileHooks, the phases of TableSimulator and
+ * BlackjackGame rounds (reset, betting, deal, players, dealer, settle),
+ * Deck.draw() and Hand.getValue() emit Java Flight Recorder events. A recording
+ * samples stacks and allocations alongside them, and is then turned into
+ * collapsed-stack files (one line per stack, frames separated by ';', then a
+ * count) that flame graph tools read directly. Each stack is rooted at the
+ * phase event its thread was in when it was sampled, or at "profiler" when it
+ * was sampled writing an event.
+ * 
+ * profile() installs it for one simulation run. To profile an interactive game,
+ * start the game with -Dblackjack.jfr=true and -XX:StartFlightRecording, then
+ * run "SimulationProfiler collapse" on the recording. Otherwise the hooks are off.
+ * 
+ * This is the only class that uses jdk.jfr: it needs a JDK 11 or later (or a
+ * Java 8 update with JFR, 8u262 or later) to compile and run, while the rest
+ * of the project still runs on Java 8, where the hooks stay off. Allocation
+ * samples come from jdk.ObjectAllocationSample where the JVM has it (JDK 16
+ * and later) and from the TLAB allocation events otherwise.
+ */
+public final class SimulationProfiler {
+    
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    private static final String ALLOCATION_IN_TLAB = "jdk.ObjectAllocationInNewTLAB";
+    private static final String ALLOCATION_OUTSIDE_TLAB = "jdk.ObjectAllocationOutsideTLAB";
+    
+    private SimulationProfiler() {
+    }
+    
+    /**
+     * Runs a simulation under a flight recording and writes the profile files.
+     * 
+     * @param table the table to run, already seated
+     * @param rounds the number of rounds to play
+     * @param outputPrefix prefix for the output files (.jfr, .cpu.collapsed, .alloc.collapsed)
+     * @param eventThreshold minimum duration for draw and hand value events to be recorded
+     * @return a summary of the time and samples in each phase
+     * @throws IOException if the recording or output files cannot be written
+     */
+    public static String profile(TableSimulator table, long rounds, String outputPrefix,
+                                 Duration eventThreshold) throws IOException {
+        Path jfrFile = Paths.get(outputPrefix + ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EXECUTION_SAMPLE).withPeriod(Duration.ofMillis(1));
+            if (isSupported(ALLOCATION_SAMPLE)) {
+                recording.enable(ALLOCATION_SAMPLE);
+            } else {
+                recording.enable(ALLOCATION_IN_TLAB);
+                recording.enable(ALLOCATION_OUTSIDE_TLAB);
+            }
+            recording.enable(PhaseEvent.class).withoutStackTrace();
+            recording.enable(DrawEvent.class).withThreshold(eventThreshold);
+            recording.enable(HandValueEvent.class).withThreshold(eventThreshold);
+            recording.start();
+            
+            ProfileHooks.Profiler previous = ProfileHooks.install(new JfrProfiler());
+            try {
+                for (long r = 0; r < rounds; r++) {
+                    table.playRound();
+                }
+            } finally {
+                ProfileHooks.install(previous);
+            }
+            
+            recording.stop();
+            recording.dump(jfrFile);
+        }
+        return writeCollapsed(jfrFile, outputPrefix);
+    }
+    
+    /**
+     * Checks whether this JVM has an event type.
+     * 
+     * @param name the event name
+     * @return true if the event can be recorded
+     */
+    private static boolean isSupported(String name) {
+        List<EventType> types = FlightRecorder.getFlightRecorder().getEventTypes();
+        for (int i = 0; i < types.size(); i++) {
+            if (types.get(i).getName().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Turns a recording into collapsed-stack files for CPU samples and allocations.
+     * 
+     * @param jfrFile the recording
+     * @param outputPrefix prefix for the output files
+     * @return a summary of the time and samples in each phase
+     * @throws IOException if the files cannot be read or written
+     */
+    public static String writeCollapsed(Path jfrFile, String outputPrefix) throws IOException {
+        List<RecordedEvent> events = RecordingFile.readAllEvents(jfrFile);
+        
+        // Phases per thread, by start time, so samples can be rooted at their phase
+        Map<Long, TreeMap<Instant, RecordedEvent>> phases = new HashMap<>();
+        Map<String, Duration> phaseTimes = new TreeMap<>();
+        long draws = 0;
+        long handValues = 0;
+        for (int i = 0; i < events.size(); i++) {
+            RecordedEvent event = events.get(i);
+            String type = event.getEventType().getName();
+            if (type.equals(PhaseEvent.NAME) && event.getThread() != null) {
+                phases.computeIfAbsent(event.getThread().getJavaThreadId(), id -> new TreeMap<>())
+                      .put(event.getStartTime(), event);
+                phaseTimes.merge(event.getString("phase"), event.getDuration(), Duration::plus);
+            } else if (type.equals(DrawEvent.NAME)) {
+                draws++;
+            } else if (type.equals(HandValueEvent.NAME)) {
+                handValues++;
+            }
+        }
+        
+        Map<String, Long> cpu = new TreeMap<>();
+        Map<String, Long> alloc = new TreeMap<>();
+        Map<String, Long> phaseSamples = new TreeMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            RecordedEvent event = events.get(i);
+            String type = event.getEventType().getName();
+            if (type.equals(EXECUTION_SAMPLE)) {
+                List<String> frames = framesOf(event.getStackTrace());
+                String phase = isRecorder(frames) ? "profiler" : phaseOf(phases, event, event.getThread("sampledThread"));
+                cpu.merge(collapse(frames, phase, null), 1L, Long::sum);
+                phaseSamples.merge(phase, 1L, Long::sum);
+            } else if (type.equals(ALLOCATION_SAMPLE) || type.equals(ALLOCATION_IN_TLAB)
+                    || type.equals(ALLOCATION_OUTSIDE_TLAB)) {
+                RecordedClass objectClass = event.getClass("objectClass");
+                String leaf = objectClass == null ? "unknown" : objectClass.getName();
+                long weight = type.equals(ALLOCATION_SAMPLE) ? event.getLong("weight")
+                        : type.equals(ALLOCATION_IN_TLAB) ? event.getLong("tlabSize")
+                        : event.getLong("allocationSize");
+                List<String> frames = framesOf(event.getStackTrace());
+                String phase = isRecorder(frames) ? "profiler" : phaseOf(phases, event, event.getThread());
+                alloc.merge(collapse(frames, phase, leaf), weight, Long::sum);
+            }
+        }
+        
+        writeCounts(Paths.get(outputPrefix + ".cpu.collapsed"), cpu);
+        writeCounts(Paths.get(outputPrefix + ".alloc.collapsed"), alloc);
+        
+        StringBuilder sb = new StringBuilder("Phase           time   CPU samples (about 1 ms each)\n");
+        List<String> names = new ArrayList<>(phaseTimes.keySet());
+        if (phaseSamples.containsKey("profiler")) {
+            names.add("profiler");
+        }
+        if (phaseSamples.containsKey("other")) {
+            names.add("other");
+        }
+        for (int i = 0; i < names.size(); i++) {
+            Duration time = phaseTimes.get(names.get(i));
+            Long samples = phaseSamples.get(names.get(i));
+            sb.append(String.format("  %-10s %8s %10d%n", names.get(i),
+                                    time == null ? "-" : time.toMillis() + " ms", samples == null ? 0 : samples));
+        }
+        sb.append(String.format("Slow draws: %d, slow hand values: %d%n", draws, handValues));
+        sb.append(String.format("CPU samples: %d stacks, allocation samples: %d stacks%n", cpu.size(), alloc.size()));
+        return sb.toString();
+    }
+    
+    /**
+     * Lists the frames of a stack trace from the root, as "Class.method".
+     * Frames whose method or class the recording did not resolve are "unknown".
+     * 
+     * @param trace the stack trace, or null
+     * @return the frames, outermost first
+     */
+    private static List<String> framesOf(RecordedStackTrace trace) {
+        List<String> names = new ArrayList<>();
+        if (trace == null || trace.getFrames() == null) {
+            return names;
+        }
+        List<RecordedFrame> frames = trace.getFrames();
+        for (int i = frames.size() - 1; i >= 0; i--) {
+            RecordedFrame frame = frames.get(i);
+            RecordedMethod method = frame == null ? null : frame.getMethod();
+            if (method == null || method.getType() == null) {
+                names.add("unknown");
+            } else {
+                names.add(method.getType().getName() + "." + method.getName());
+            }
+        }
+        return names;
+    }
+    
+    /**
+     * Finds the phase of a round an event happened in.
+     * 
+     * @param phases the phase events per thread, by start time
+     * @param event the sample
+     * @param thread the thread the sample was taken on, or null
+     * @return the phase its thread was in, or "other"
+     */
+    private static String phaseOf(Map<Long, TreeMap<Instant, RecordedEvent>> phases,
+                                  RecordedEvent event, RecordedThread thread) {
+        TreeMap<Instant, RecordedEvent> byStart = thread == null ? null : phases.get(thread.getJavaThreadId());
+        if (byStart != null) {
+            Map.Entry<Instant, RecordedEvent> entry = byStart.floorEntry(event.getStartTime());
+            if (entry != null && !entry.getValue().getEndTime().isBefore(event.getStartTime())) {
+                return entry.getValue().getString("phase");
+            }
+        }
+        return "other";
+    }
+    
+    /**
+     * Checks whether a stack was sampled while writing an event, which is the
+     * cost of profiling rather than of any phase.
+     * 
+     * @param frames the frames, outermost first
+     * @return true if the flight recorder is on the stack
+     */
+    private static boolean isRecorder(List<String> frames) {
+        for (int i = frames.size() - 1; i >= 0; i--) {
+            if (frames.get(i).startsWith("jdk.jfr.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String collapse(List<String> frames, String phase, String leaf) {
+        StringBuilder sb = new StringBuilder("phase:").append(phase);
+        for (int i = 0; i < frames.size(); i++) {
+            sb.append(';').append(frames.get(i));
+        }
+        if (leaf != null) {
+            sb.append(";new ").append(leaf);
+        }
+        return sb.toString();
+    }
+    
+    private static void writeCounts(Path file, Map<String, Long> counts) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                out.println(entry.getKey() + " " + entry.getValue());
+            }
+        }
+    }
+    
+    /**
+     * Emits the events below from the ProfileHooks in the game engine.
+     * Loaded by name when a game starts with -Dblackjack.jfr=true.
+     */
+    static final class JfrProfiler implements ProfileHooks.Profiler {
+        
+        @Override
+        public ProfileHooks.Span beginPhase(String phase) {
+            PhaseEvent event = new PhaseEvent();
+            if (!event.isEnabled()) {
+                return null;
+            }
+            event.phase = phase;
+            event.begin();
+            return event;
+        }
+        
+        @Override
+        public Card draw(Deck deck) {
+            DrawEvent event = new DrawEvent();
+            event.begin();
+            Card card = deck.drawTop();
+            event.cardsLeft = deck.getSize();
+            event.commit();
+            return card;
+        }
+        
+        @Override
+        public int value(Hand hand) {
+            HandValueEvent event = new HandValueEvent();
+            event.begin();
+            int value = hand.computeValue();
+            event.cards = hand.getCardCount();
+            event.commit();
+            return value;
+        }
+    }
+    
+    /**
+     * A phase of a round (reset, betting, deal, players, dealer, settle).
+     * Event.commit() ends the span.
+     */
+    @Name(PhaseEvent.NAME)
+    @Label("Blackjack Phase")
+    @Category("Blackjack")
+    static class PhaseEvent extends Event implements ProfileHooks.Span {
+        static final String NAME = "ca.sheridancollege.project.Phase";
+        
+        @Label("Phase")
+        String phase;
+    }
+    
+    /**
+     * A single Deck.draw() call.
+     */
+    @Name(DrawEvent.NAME)
+    @Label("Deck Draw")
+    @Category("Blackjack")
+    static class DrawEvent extends Event {
+        static final String NAME = "ca.sheridancollege.project.Draw";
+        
+        @Label("Cards Left")
+        int cardsLeft;
+    }
+    
+    /**
+     * A Hand.getValue() call that had to score the hand.
+     */
+    @Name(HandValueEvent.NAME)
+    @Label("Hand Value")
+    @Category("Blackjack")
+    static class HandValueEvent extends Event {
+        static final String NAME = "ca.sheridancollege.project.HandValue";
+        
+        @Label("Cards")
+        int cards;
+    }
+    
+    /**
+     * Profiles a basic-strategy simulation and writes the flame graph input files,
+     * or writes them for an existing recording ("collapse recording.jfr [prefix]").
+     * 
+     * @param args optional: rounds, seats, decks, output prefix
+     * @throws IOException if the output cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 1 && args[0].equals("collapse")) {
+            String prefix = args.length > 2 ? args[2] : "blackjack-profile";
+            System.out.print(writeCollapsed(Paths.get(args[1]), prefix));
+            System.out.println("Wrote " + prefix + ".cpu.collapsed and " + prefix + ".alloc.collapsed");
+            return;
+        }
+        long rounds = args.length > 0 ? Long.parseLong(args[0]) : 200_000L;
+        int seats = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int decks = args.length > 2 ? Integer.parseInt(args[2]) : 6;
+        String prefix = args.length > 3 ? args[3] : "blackjack-profile";
+        
+        TableSimulator table = new TableSimulator(decks, 17796L);
+        for (int i = 0; i < seats; i++) {
+            table.addPlayer(new BlackjackPlayer("Seat " + (i + 1), Integer.MAX_VALUE / 2), PolicyStrategy.basic(10));
+        }
+        System.out.print(profile(table, rounds, prefix, Duration.ofMillis(1)));
+        System.out.println("Wrote " + prefix + ".jfr, " + prefix + ".cpu.collapsed and " + prefix + ".alloc.collapsed");
+    }
+}
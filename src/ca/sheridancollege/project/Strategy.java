@@ -0,0 +1,34 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Decision rules for a computer-controlled player.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+/**
+ * The decisions a computer-controlled player makes in a round:
+ * how much to bet, and whether to hit or stand.
+ */
+public interface Strategy {
+    
+    /**
+     * Chooses the bet for the next round.
+     * The table clamps the result to the player's available points.
+     * 
+     * @param player the player placing the bet
+     * @param trueCount the Hi-Lo running count divided by decks remaining
+     * @return the amount to bet
+     */
+    int getBet(BlackjackPlayer player, int trueCount);
+    
+    /**
+     * Chooses whether to take another card.
+     * 
+     * @param hand the player's current hand
+     * @param dealerUpValue the value of the dealer's visible card (2 to 11)
+     * @return true to hit, false to stand
+     */
+    boolean shouldHit(Hand hand, int dealerUpValue);
+}
@@ -0,0 +1,254 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Searches for the best playing and betting policy by simulation.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares candidate PolicyStrategy tables by simulating them in parallel batches
+ * on TableSimulator, which uses the real Dealer and RoundResult settlement rules.
+ * 
+ * Candidates are ranked by their return per point wagered, not per round:
+ * mutations also change the bet ramp, and in a game with a house edge a lower
+ * bet loses fewer points per round without playing any better.
+ * 
+ * After each batch, every candidate whose return is confidently below the
+ * current leader's (a sequential z-test on the batch statistics) is dropped,
+ * so losing policies stop using simulation time early.
+ */
+public class StrategyOptimizer {
+    
+    // Bankroll large enough that a candidate is never limited by its points
+    private static final int SIMULATION_BANKROLL = 1_000_000_000;
+    
+    private final List<Candidate> candidates;
+    private final int threads;
+    private int roundsPerBatch = 100_000;
+    private int maxBatches = 50;
+    private double confidence = 3.0;    // z-score needed to drop a candidate
+    
+    /**
+     * Constructor to create an optimizer over a set of candidates.
+     * Every candidate plays from the same seed, so they see the same shoes
+     * until their decisions differ, which sharpens the comparison.
+     * 
+     * @param strategies the candidate policies
+     * @param numDecks the number of decks in the shoe
+     * @param seed the seed for every candidate's table
+     */
+    public StrategyOptimizer(List<PolicyStrategy> strategies, int numDecks, long seed) {
+        this.candidates = new ArrayList<>();
+        for (int i = 0; i < strategies.size(); i++) {
+            candidates.add(new Candidate(strategies.get(i), numDecks, seed));
+        }
+        this.threads = Runtime.getRuntime().availableProcessors();
+    }
+    
+    public void setRoundsPerBatch(int roundsPerBatch) {
+        this.roundsPerBatch = roundsPerBatch;
+    }
+    
+    public void setMaxBatches(int maxBatches) {
+        this.maxBatches = maxBatches;
+    }
+    
+    public void setConfidence(double confidence) {
+        this.confidence = confidence;
+    }
+    
+    /**
+     * Runs batches until one candidate is left or the batch limit is reached.
+     * 
+     * @return the candidate with the best return per point wagered
+     * @throws InterruptedException if interrupted while waiting for a batch
+     */
+    public PolicyStrategy optimize() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int batch = 0; batch < maxBatches && countAlive() > 1; batch++) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < candidates.size(); i++) {
+                    Candidate candidate = candidates.get(i);
+                    if (candidate.alive) {
+                        futures.add(executor.submit(candidate.batch(roundsPerBatch)));
+                    }
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        futures.get(i).get();
+                    } catch (ExecutionException e) {
+                        throw new IllegalStateException("Simulation batch failed", e.getCause());
+                    }
+                }
+                prune();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return leader().strategy;
+    }
+    
+    /**
+     * Drops every candidate that is confidently worse than the leader.
+     */
+    private void prune() {
+        Candidate leader = leader();
+        double leaderLow = leader.edge() - confidence * leader.standardError();
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            if (candidate.alive && candidate != leader
+                    && candidate.edge() + confidence * candidate.standardError() < leaderLow) {
+                candidate.alive = false;
+            }
+        }
+    }
+    
+    /**
+     * Finds the remaining candidate with the best return per point wagered.
+     * 
+     * @return the leading candidate
+     */
+    private Candidate leader() {
+        Candidate best = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            if (candidate.alive && (best == null || candidate.edge() > best.edge())) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+    
+    private int countAlive() {
+        int alive = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (candidates.get(i).alive) {
+                alive++;
+            }
+        }
+        return alive;
+    }
+    
+    /**
+     * Returns a report of every candidate's results so far.
+     * 
+     * @return one line per candidate
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            sb.append(String.format("#%-3d %s rounds=%d return=%.5f se=%.5f per round=%.4f %s%n", i,
+                    candidate.alive ? "alive  " : "dropped", candidate.rounds, candidate.edge(),
+                    candidate.standardError(), candidate.perRound(), candidate.strategy));
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * One candidate policy with its own table and running statistics.
+     */
+    private static class Candidate {
+        final PolicyStrategy strategy;
+        final TableSimulator table;
+        boolean alive = true;
+        long rounds;
+        double sum;             // Points change
+        double sumOfSquares;
+        double wagered;         // Points bet
+        double wageredSquares;
+        double cross;           // Points change times points bet
+        
+        Candidate(PolicyStrategy strategy, int numDecks, long seed) {
+            this.strategy = strategy;
+            this.table = new TableSimulator(numDecks, seed);
+            table.addPlayer(new BlackjackPlayer("Candidate", SIMULATION_BANKROLL), strategy);
+        }
+        
+        Callable<Void> batch(int roundsPerBatch) {
+            return () -> {
+                for (int r = 0; r < roundsPerBatch; r++) {
+                    table.playRound();
+                    double change = table.getLastPointsChange(0);
+                    double bet = table.getPlayers().get(0).getCurrentBet();
+                    sum += change;
+                    sumOfSquares += change * change;
+                    wagered += bet;
+                    wageredSquares += bet * bet;
+                    cross += change * bet;
+                }
+                rounds += roundsPerBatch;
+                return null;
+            };
+        }
+        
+        double perRound() {
+            return rounds == 0 ? 0 : sum / rounds;
+        }
+        
+        /**
+         * Gets the points won per point wagered.
+         */
+        double edge() {
+            return wagered == 0 ? 0 : sum / wagered;
+        }
+        
+        /**
+         * Gets the standard error of edge(), a ratio of two sums, from the
+         * variance of change - edge * bet per round (the delta method).
+         */
+        double standardError() {
+            if (rounds < 2 || wagered == 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double edge = edge();
+            double residualSquares = sumOfSquares - 2 * edge * cross + edge * edge * wageredSquares;
+            double variance = residualSquares / (rounds - 1);
+            double meanBet = wagered / rounds;
+            return Math.sqrt(Math.max(variance, 0) / rounds) / meanBet;
+        }
+    }
+    
+    /**
+     * Searches around basic strategy and prints the best policy table.
+     * 
+     * @param args optional: candidates, rounds per batch, max batches, decks, seed
+     * @throws InterruptedException if interrupted while optimizing
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int batches = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        int decks = args.length > 3 ? Integer.parseInt(args[3]) : 6;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 17796L;
+        
+        Random random = new Random(seed);
+        List<PolicyStrategy> strategies = new ArrayList<>();
+        PolicyStrategy base = PolicyStrategy.basic(10).withBetRamp(new int[] {10, 10, 10, 10, 10});
+        strategies.add(base);
+        while (strategies.size() < count) {
+            strategies.add(base.mutate(random));
+        }
+        
+        StrategyOptimizer optimizer = new StrategyOptimizer(strategies, decks, seed);
+        optimizer.setRoundsPerBatch(rounds);
+        optimizer.setMaxBatches(batches);
+        PolicyStrategy best = optimizer.optimize();
+        
+        System.out.print(optimizer.report());
+        System.out.println("\nBest policy:");
+        System.out.println(best.toTable());
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * A table that plays sessions sent by the lobby, confined to one thread at a time.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the headless game engine (TableSimulator, with its own Deck and Dealer)
+ * as an actor. The lobby sends a Session naming the seated players and the
+ * stake each brings to the table; the table plays the rounds against local
+ * accounts holding only those stakes, so nothing it touches is shared, and
+ * then reports the final stakes back to the lobby in one message.
+ */
+public class TableActor extends Actor<TableActor.Session> {
+    
+    /**
+     * A run of rounds for a group of players.
+     */
+    public static final class Session {
+        private final int[] playerIds;
+        private final String[] names;
+        private final int[] stakes;
+        private final int rounds;
+        private final long seed;
+        
+        /**
+         * Constructor to create a session.
+         * 
+         * @param playerIds the lobby's ids for the players, in seat order
+         * @param names the players' names
+         * @param stakes the points each player brings, reserved in their lobby account
+         * @param rounds the most rounds to play
+         * @param seed the seed for the session's shoe
+         */
+        public Session(int[] playerIds, String[] names, int[] stakes, int rounds, long seed) {
+            this.playerIds = playerIds;
+            this.names = names;
+            this.stakes = stakes;
+            this.rounds = rounds;
+            this.seed = seed;
+        }
+        
+        public int[] getPlayerIds() {
+            return playerIds;
+        }
+        
+        public int[] getStakes() {
+            return stakes;
+        }
+        
+        public int getRounds() {
+            return rounds;
+        }
+        
+        @Override
+        public String toString() {
+            return "Session of " + rounds + " rounds for " + playerIds.length + " players";
+        }
+    }
+    
+    private final int tableId;
+    private final int numDecks;
+    private final Strategy strategy;
+    private final Lobby lobby;
+    private long roundsPlayed;
+    
+    /**
+     * Constructor to create a table.
+     * 
+     * @param tableId the table's number in the lobby
+     * @param numDecks the number of decks in the shoe
+     * @param strategy the strategy every seat plays (shared, so it must be immutable)
+     * @param lobby where sessions are reported
+     * @param executor runs the table
+     */
+    public TableActor(int tableId, int numDecks, Strategy strategy, Lobby lobby, Executor executor) {
+        super(executor, 4);     // The lobby sends a table one session at a time
+        this.tableId = tableId;
+        this.numDecks = numDecks;
+        this.strategy = strategy;
+        this.lobby = lobby;
+    }
+    
+    public int getTableId() {
+        return tableId;
+    }
+    
+    /**
+     * Plays a session and reports the players' final stakes to the lobby.
+     * 
+     * @param session the session
+     */
+    @Override
+    protected void receive(Session session) {
+        TableSimulator table = new TableSimulator(numDecks, session.seed);
+        for (int i = 0; i < session.playerIds.length; i++) {
+            table.addPlayer(new BlackjackPlayer(session.names[i], session.stakes[i]), strategy);
+        }
+        int played = 0;
+        while (played < session.rounds && table.playRound()) {
+            played++;
+        }
+        roundsPlayed += played;
+        
+        ArrayList<BlackjackPlayer> players = table.getPlayers();
+        int[] finalStakes = new int[players.size()];
+        for (int i = 0; i < finalStakes.length; i++) {
+            finalStakes[i] = players.get(i).getPoints();
+        }
+        lobby.tell(new Lobby.SessionEnded(tableId, session, finalStakes, played));
+    }
+    
+    /**
+     * Gets the rounds this table has played. Read it only once the lobby has finished.
+     * 
+     * @return the number of rounds
+     */
+    public long getRoundsPlayed() {
+        return roundsPlayed;
+    }
+}
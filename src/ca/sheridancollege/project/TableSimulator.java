@@ -0,0 +1,456 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * A headless Blackjack table for simulations.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Plays rounds of Blackjack without any console input or output.
+ * Follows the same round flow as BlackjackGame (reshuffle threshold, betting,
+ * Blackjack check, player turns, dealer turn and settlement through RoundResult),
+ * with each seat's decisions made by a Strategy.
+ * 
+ * A round allocates nothing once the table is set up, so millions of rounds
+ * can be simulated without garbage collection pressure.
+ */
+public class TableSimulator {
+    
+    private static final SideBet[] SIDE_BETS = SideBet.values();
+    
+    private final Deck deck;
+    private final Dealer dealer;
+    private final ArrayList<BlackjackPlayer> players;
+    private final ArrayList<Strategy> strategies;
+    private final Random random;
+    private int roundNumber;
+    private int runningCount;           // Hi-Lo count of cards seen since the last reshuffle
+    private boolean dealerSampling;     // Sample the dealer's total instead of drawing cards
+    private int dealerFinalValue;
+    private int[] lastPointsChange;
+    private RoundResult[] lastResults;
+    private final int[] sideBetAmounts;     // Flat side bets placed by every betting seat
+    private int[] lastSideBetChange;
+    private final ArrayList<RoundListener> listeners;
+    
+    /**
+     * Receives every round played at a table, after settlement and before the
+     * next round resets the hands, so the round's cards and results can be read.
+     */
+    public interface RoundListener {
+        
+        /**
+         * Called once a round has been settled.
+         * 
+         * @param table the table that played the round
+         */
+        void roundPlayed(TableSimulator table);
+    }
+    
+    /**
+     * Constructor to create a table with a seeded shoe.
+     * 
+     * @param numDecks the number of decks in the shoe
+     * @param seed the seed for all randomness at this table
+     */
+    public TableSimulator(int numDecks, long seed) {
+        this(numDecks, seed, Deck.Mode.SHOE);
+    }
+    
+    /**
+     * Constructor to create a table with a seeded deck in the given mode.
+     * 
+     * @param numDecks the number of decks
+     * @param seed the seed for all randomness at this table
+     * @param mode a shoe, or a continuous shuffling machine
+     */
+    public TableSimulator(int numDecks, long seed, Deck.Mode mode) {
+        this.random = new Random(seed);
+        this.deck = new Deck(numDecks, random, mode);
+        this.dealer = new Dealer();
+        this.players = new ArrayList<>();
+        this.strategies = new ArrayList<>();
+        this.lastPointsChange = new int[0];
+        this.lastResults = new RoundResult[0];
+        this.sideBetAmounts = new int[SideBet.values().length];
+        this.lastSideBetChange = new int[0];
+        this.listeners = new ArrayList<>();
+    }
+    
+    /**
+     * Seats a player at the table.
+     * 
+     * @param player the player
+     * @param strategy the strategy that makes the player's decisions
+     */
+    public void addPlayer(BlackjackPlayer player, Strategy strategy) {
+        players.add(player);
+        strategies.add(strategy);
+        lastPointsChange = new int[players.size()];
+        lastResults = new RoundResult[players.size()];
+        lastSideBetChange = new int[players.size()];
+    }
+    
+    /**
+     * Sets a flat side bet that every seat places alongside its main bet.
+     * Side bets are settled on the initial deal, before the Blackjack check.
+     * 
+     * @param sideBet the side bet
+     * @param amount the amount to bet each round, or 0 for none
+     */
+    public void setSideBet(SideBet sideBet, int amount) {
+        sideBetAmounts[sideBet.ordinal()] = Math.max(0, amount);
+    }
+    
+    /**
+     * Registers a listener for every round played from now on.
+     * 
+     * @param listener the listener
+     */
+    public void addRoundListener(RoundListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Chooses whether the dealer's final total is sampled from the cached
+     * infinite-deck distribution in DealerTable instead of drawn from the shoe.
+     * Faster, but the dealer's cards are no longer removed from the shoe.
+     * 
+     * @param dealerSampling true to sample the dealer's total
+     */
+    public void setDealerSampling(boolean dealerSampling) {
+        this.dealerSampling = dealerSampling;
+    }
+    
+    /**
+     * Plays one full round.
+     * 
+     * @return false if no player placed a bet, so no round was played
+     */
+    public boolean playRound() {
+        roundNumber++;
+        ProfileHooks.Span span = ProfileHooks.beginPhase("reset");
+        resetRound();
+        
+        if (deck.getSize() < BlackjackGame.RESHUFFLE_THRESHOLD) {
+            deck.reset();
+            runningCount = 0;
+        }
+        ProfileHooks.end(span);
+        
+        span = ProfileHooks.beginPhase("betting");
+        boolean betPlaced = bettingPhase();
+        ProfileHooks.end(span);
+        if (!betPlaced) {
+            return false;
+        }
+        
+        span = ProfileHooks.beginPhase("deal");
+        deck.dealInitial(players, dealer);
+        dealerFinalValue = dealer.getHandValue();
+        resolveSideBets();
+        boolean blackjack = blackjackOccurred();
+        ProfileHooks.end(span);
+        
+        if (!blackjack) {
+            span = ProfileHooks.beginPhase("players");
+            for (int i = 0; i < players.size(); i++) {
+                BlackjackPlayer player = players.get(i);
+                if (player.hasPoints()) {
+                    playerTurn(player, strategies.get(i));
+                }
+            }
+            ProfileHooks.end(span);
+            span = ProfileHooks.beginPhase("dealer");
+            dealerTurn();
+            ProfileHooks.end(span);
+        }
+        
+        span = ProfileHooks.beginPhase("settle");
+        resolveRound();
+        countCards();
+        ProfileHooks.end(span);
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).roundPlayed(this);
+        }
+        return true;
+    }
+    
+    /**
+     * Resets all hands and results for a new round.
+     */
+    private void resetRound() {
+        deck.discard(dealer.getHand());
+        dealer.resetForNewRound();
+        for (int i = 0; i < players.size(); i++) {
+            deck.discard(players.get(i).getHand());
+            players.get(i).resetForNewRound();
+            lastPointsChange[i] = 0;
+            lastResults[i] = null;
+            lastSideBetChange[i] = 0;
+        }
+    }
+    
+    /**
+     * Places each player's bet from their strategy.
+     * 
+     * @return true if at least one player placed a bet
+     */
+    private boolean bettingPhase() {
+        boolean anyBets = false;
+        int trueCount = getTrueCount();
+        for (int i = 0; i < players.size(); i++) {
+            BlackjackPlayer player = players.get(i);
+            if (player.getPoints() <= 0) {
+                continue;
+            }
+            int bet = Math.max(1, Math.min(strategies.get(i).getBet(player, trueCount), player.getPoints()));
+            if (player.placeBet(bet)) {
+                anyBets = true;
+                for (int j = 0; j < sideBetAmounts.length; j++) {
+                    if (sideBetAmounts[j] > 0 && player.getAccount().getAvailable() >= sideBetAmounts[j]) {
+                        player.placeSideBet(SIDE_BETS[j], sideBetAmounts[j]);
+                    }
+                }
+            }
+        }
+        return anyBets;
+    }
+    
+    /**
+     * Settles every side bet on the initial deal from the lookup tables.
+     */
+    private void resolveSideBets() {
+        int upCard = ((BlackjackCard) dealer.getVisibleCard()).getIndex();
+        for (int i = 0; i < players.size(); i++) {
+            BlackjackPlayer player = players.get(i);
+            ArrayList<Card> cards = player.getHand().getCards();
+            if (player.getCurrentBet() <= 0 || cards.size() < 2) {
+                continue;
+            }
+            int first = ((BlackjackCard) cards.get(0)).getIndex();
+            int second = ((BlackjackCard) cards.get(1)).getIndex();
+            for (int j = 0; j < sideBetAmounts.length; j++) {
+                SideBet sideBet = SIDE_BETS[j];
+                int amount = player.getSideBet(sideBet);
+                if (amount > 0) {
+                    int pointsChange = sideBet.outcome(first, second, upCard).pointsChange(amount);
+                    player.settleSideBet(sideBet, pointsChange);
+                    lastSideBetChange[i] += pointsChange;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Checks whether the dealer or any player was dealt a Blackjack.
+     * 
+     * @return true if the round goes straight to settlement
+     */
+    private boolean blackjackOccurred() {
+        boolean blackjack = dealer.hasBlackjack();
+        for (int i = 0; i < players.size(); i++) {
+            blackjack |= players.get(i).hasBlackjack();
+        }
+        return blackjack;
+    }
+    
+    /**
+     * Plays a player's hand using their strategy.
+     * 
+     * @param player the player
+     * @param strategy the player's strategy
+     */
+    private void playerTurn(BlackjackPlayer player, Strategy strategy) {
+        if (player.getCurrentBet() <= 0) {
+            return;
+        }
+        int upValue = dealer.getVisibleCardValue();
+        while (!player.isStanding() && !player.isBusted()) {
+            if (strategy.shouldHit(player.getHand(), upValue)) {
+                if (player.hit(deck) == null) {
+                    // The shoe ran out mid-round (many seats); the hand has to stand
+                    player.stand();
+                }
+            } else {
+                player.stand();
+            }
+        }
+    }
+    
+    /**
+     * Plays the dealer's hand, unless every betting player has busted.
+     */
+    private void dealerTurn() {
+        boolean allBusted = true;
+        for (int i = 0; i < players.size(); i++) {
+            BlackjackPlayer player = players.get(i);
+            if (player.getCurrentBet() > 0 && !player.isBusted()) {
+                allBusted = false;
+                break;
+            }
+        }
+        if (allBusted) {
+            return;
+        }
+        
+        if (dealerSampling) {
+            dealerFinalValue = DealerTable.sampleFinalValue(DealerTable.stateOf(dealer.getHand()), random);
+        } else {
+            dealer.autoPlay(deck);
+            dealerFinalValue = dealer.getHandValue();
+        }
+    }
+    
+    /**
+     * Settles every bet with the same rules as BlackjackGame.
+     */
+    private void resolveRound() {
+        boolean dealerBlackjack = dealer.hasBlackjack();
+        for (int i = 0; i < players.size(); i++) {
+            BlackjackPlayer player = players.get(i);
+            if (player.getCurrentBet() <= 0) {
+                continue;
+            }
+            RoundResult result = RoundResult.resolve(player.getHandValue(), player.hasBlackjack(),
+                                                     dealerFinalValue, dealerBlackjack);
+            int pointsChange = result.pointsChange(player.getCurrentBet());
+            player.settleBet(pointsChange);
+            lastResults[i] = result;
+            lastPointsChange[i] = pointsChange;
+        }
+    }
+    
+    /**
+     * Adds the cards seen this round to the Hi-Lo running count.
+     */
+    private void countCards() {
+        if (deck.getMode() != Deck.Mode.SHOE) {
+            return;     // Seen cards go straight back into the machine (or never left), so counting gains nothing
+        }
+        runningCount += hiLo(dealer.getHand());
+        for (int i = 0; i < players.size(); i++) {
+            runningCount += hiLo(players.get(i).getHand());
+        }
+    }
+    
+    /**
+     * Gets the Hi-Lo count of a hand: +1 for 2 to 6, -1 for tens and Aces.
+     * 
+     * @param hand the hand
+     * @return the count of the hand's cards
+     */
+    private static int hiLo(Hand hand) {
+        int count = 0;
+        ArrayList<Card> cards = hand.getCards();
+        for (int i = 0; i < cards.size(); i++) {
+            int value = ((BlackjackCard) cards.get(i)).getValue();
+            if (value <= 6) {
+                count++;
+            } else if (value >= 10) {
+                count--;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Checks if the game at this table is over, using the BlackjackGame rules.
+     * 
+     * @return true if a player reached the winning points or everyone is out
+     */
+    public boolean isGameOver() {
+        return BlackjackGame.isGameOver(players);
+    }
+    
+    /**
+     * Gets the running count divided by the number of decks left in the shoe.
+     * 
+     * @return the true count, rounded toward zero
+     */
+    public int getTrueCount() {
+        int decksLeft = Math.max(1, Math.round(deck.getSize() / (float) BlackjackCard.CARDS_PER_DECK));
+        return runningCount / decksLeft;
+    }
+    
+    /**
+     * Gets the points change of a seat in the last round.
+     * 
+     * @param seat the seat index
+     * @return the points won or lost, or 0 if the seat did not bet
+     */
+    public int getLastPointsChange(int seat) {
+        return lastPointsChange[seat];
+    }
+    
+    /**
+     * Gets the points a seat won or lost on side bets in the last round.
+     * Not included in getLastPointsChange().
+     * 
+     * @param seat the seat index
+     * @return the side bet points change, or 0 if the seat placed none
+     */
+    public int getLastSideBetChange(int seat) {
+        return lastSideBetChange[seat];
+    }
+    
+    /**
+     * Gets the result of a seat in the last round.
+     * 
+     * @param seat the seat index
+     * @return the result, or null if the seat did not bet
+     */
+    public RoundResult getLastResult(int seat) {
+        return lastResults[seat];
+    }
+    
+    /**
+     * Gets the dealer's final total in the last round (sampled or drawn).
+     * 
+     * @return the dealer's total
+     */
+    public int getDealerFinalValue() {
+        return dealerFinalValue;
+    }
+    
+    /**
+     * Gets the number of rounds played.
+     * 
+     * @return the round number
+     */
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+    
+    /**
+     * Gets the seated players.
+     * 
+     * @return the players, in seat order
+     */
+    public ArrayList<BlackjackPlayer> getPlayers() {
+        return players;
+    }
+    
+    /**
+     * Gets the dealer.
+     * 
+     * @return the dealer
+     */
+    public Dealer getDealer() {
+        return dealer;
+    }
+    
+    /**
+     * Gets the shoe.
+     * 
+     * @return the deck
+     */
+    public Deck getDeck() {
+        return deck;
+    }
+}
@@ -0,0 +1,273 @@
+/**
+ * SYST 17796 Project - Blackjack
+ * Plays many complete games between bot players in parallel.
+ * 
+ * @author Solo Creator Team
+ * @date November 2025
+ */
+package ca.sheridancollege.project;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs complete games of Blackjack on TableSimulator, each seat played by a
+ * Strategy, from BlackjackPlayer.STARTING_POINTS until someone reaches
+ * BlackjackGame.WINNING_POINTS or everyone is eliminated.
+ * 
+ * Games are split into ranges on a ForkJoinPool, so idle workers steal the
+ * remaining ranges of busy ones and short games never leave a core idle.
+ * Game i always uses seed + i, so results do not depend on scheduling.
+ */
+public class Tournament {
+    
+    // Games per leaf task before a range is no longer split
+    private static final int GAMES_PER_TASK = 64;
+    
+    private final List<String> names;
+    private final List<Strategy> strategies;
+    private final int numDecks;
+    private final long seed;
+    private int maxRounds = 10_000;     // Safety cap on the length of a single game
+    
+    /**
+     * Constructor to create a tournament for a set of seats.
+     * 
+     * @param numDecks the number of decks in each game's shoe
+     * @param seed the base seed; game i uses seed + i
+     */
+    public Tournament(int numDecks, long seed) {
+        this.names = new ArrayList<>();
+        this.strategies = new ArrayList<>();
+        this.numDecks = numDecks;
+        this.seed = seed;
+    }
+    
+    /**
+     * Adds a seat played by the given strategy in every game.
+     * 
+     * @param name the name of the seat
+     * @param strategy the strategy for the seat
+     */
+    public void addSeat(String name, Strategy strategy) {
+        names.add(name);
+        strategies.add(strategy);
+    }
+    
+    public void setMaxRounds(int maxRounds) {
+        this.maxRounds = maxRounds;
+    }
+    
+    /**
+     * Plays the given number of games on all cores.
+     * 
+     * @param games the number of games
+     * @return the combined results
+     */
+    public Results run(int games) {
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            return pool.invoke(new GameRange(0, games));
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Plays a single game to completion.
+     * 
+     * @param gameIndex the index of the game, which selects its seed
+     * @param results the results to add the game to
+     */
+    private void playGame(long gameIndex, Results results) {
+        TableSimulator table = new TableSimulator(numDecks, seed + gameIndex);
+        for (int i = 0; i < strategies.size(); i++) {
+            table.addPlayer(new BlackjackPlayer(names.get(i)), strategies.get(i));
+        }
+        
+        while (table.getRoundNumber() < maxRounds && !table.isGameOver()) {
+            if (!table.playRound()) {
+                break;
+            }
+        }
+        
+        // The winner is picked the same way as BlackjackGame.declareWinner()
+        ArrayList<BlackjackPlayer> players = table.getPlayers();
+        int winner = -1;
+        int highestPoints = 0;
+        for (int i = 0; i < players.size(); i++) {
+            int points = players.get(i).getPoints();
+            if (points > highestPoints) {
+                highestPoints = points;
+                winner = i;
+            }
+            if (points <= 0) {
+                results.eliminations[i]++;
+            }
+        }
+        if (winner >= 0) {
+            results.wins[winner]++;
+        }
+        if (table.getRoundNumber() >= maxRounds && !table.isGameOver()) {
+            results.capped++;       // Stopped by the cap, not finished on its last round
+        }
+        results.roundCounts[Math.min(table.getRoundNumber(), maxRounds)]++;
+        results.games++;
+    }
+    
+    /**
+     * A range of games that splits itself in half until it is small enough to play.
+     */
+    private class GameRange extends RecursiveTask<Results> {
+        private static final long serialVersionUID = 1L;
+        
+        private final long from;
+        private final long to;
+        
+        GameRange(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected Results compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                Results results = new Results(names, maxRounds);
+                for (long game = from; game < to; game++) {
+                    playGame(game, results);
+                }
+                return results;
+            }
+            long middle = (from + to) >>> 1;
+            GameRange left = new GameRange(from, middle);
+            left.fork();
+            Results right = new GameRange(middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+    
+    /**
+     * Combined statistics over a set of games.
+     */
+    public static class Results {
+        private final List<String> names;
+        private final long[] roundCounts;   // Number of games that lasted each number of rounds
+        private final long[] wins;
+        private final long[] eliminations;
+        private long games;
+        private long capped;                // Games stopped at the round cap
+        
+        Results(List<String> names, int maxRounds) {
+            this.names = names;
+            this.roundCounts = new long[maxRounds + 1];
+            this.wins = new long[names.size()];
+            this.eliminations = new long[names.size()];
+        }
+        
+        Results merge(Results other) {
+            for (int i = 0; i < roundCounts.length; i++) {
+                roundCounts[i] += other.roundCounts[i];
+            }
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                eliminations[i] += other.eliminations[i];
+            }
+            games += other.games;
+            capped += other.capped;
+            return this;
+        }
+        
+        public long getGames() {
+            return games;
+        }
+        
+        /**
+         * Gets the fraction of games won by a seat.
+         * 
+         * @param seat the seat index
+         * @return the win probability
+         */
+        public double getWinRate(int seat) {
+            return games == 0 ? 0 : (double) wins[seat] / games;
+        }
+        
+        /**
+         * Gets the fraction of games in which a seat was eliminated.
+         * 
+         * @param seat the seat index
+         * @return the elimination rate
+         */
+        public double getEliminationRate(int seat) {
+            return games == 0 ? 0 : (double) eliminations[seat] / games;
+        }
+        
+        /**
+         * Gets the number of rounds within which the given fraction of games ended.
+         * 
+         * @param fraction a fraction from 0 to 1
+         * @return the game length percentile, in rounds
+         */
+        public int getRoundsPercentile(double fraction) {
+            long target = (long) Math.ceil(fraction * games);
+            long seen = 0;
+            for (int rounds = 0; rounds < roundCounts.length; rounds++) {
+                seen += roundCounts[rounds];
+                if (seen >= Math.max(target, 1)) {
+                    return rounds;
+                }
+            }
+            return roundCounts.length - 1;
+        }
+        
+        /**
+         * Gets the mean game length.
+         * 
+         * @return the mean number of rounds per game
+         */
+        public double getMeanRounds() {
+            double total = 0;
+            for (int rounds = 0; rounds < roundCounts.length; rounds++) {
+                total += (double) rounds * roundCounts[rounds];
+            }
+            return games == 0 ? 0 : total / games;
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Games: %d (%d hit the round cap)%n", games, capped));
+            sb.append(String.format("Rounds per game: mean %.1f, median %d, p90 %d, p99 %d, max %d%n",
+                    getMeanRounds(), getRoundsPercentile(0.5), getRoundsPercentile(0.9),
+                    getRoundsPercentile(0.99), getRoundsPercentile(1.0)));
+            for (int i = 0; i < names.size(); i++) {
+                sb.append(String.format("  %-12s win %.4f  eliminated %.4f%n",
+                        names.get(i), getWinRate(i), getEliminationRate(i)));
+            }
+            return sb.toString();
+        }
+    }
+    
+    /**
+     * Plays a tournament between a few built-in bots and prints the results.
+     * 
+     * @param args optional: games, decks, seed
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int decks = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 17796L;
+        
+        Tournament tournament = new Tournament(decks, seed);
+        tournament.addSeat("Basic", PolicyStrategy.basic(10));
+        tournament.addSeat("Counter", PolicyStrategy.basic(5).withBetRamp(new int[] {5, 10, 20, 30, 40}));
+        tournament.addSeat("Bold", PolicyStrategy.basic(25));
+        tournament.addSeat("MimicDealer", new PolicyStrategy(
+                new int[] {17, 17, 17, 17, 17, 17, 17, 17, 17, 17},
+                new int[] {17, 17, 17, 17, 17, 17, 17, 17, 17, 17},
+                new int[] {10}));
+        
+        System.out.print(tournament.run(games));
+    }
+}